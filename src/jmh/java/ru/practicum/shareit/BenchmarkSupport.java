@@ -0,0 +1,117 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.enums.Phases;
+import ru.practicum.shareit.enums.Statuses;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Общий запуск приложения на H2 и заполнение базы для бенчмарков.
+ */
+public final class BenchmarkSupport {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkSupport() {
+    }
+
+    public static ConfigurableApplicationContext startApplication(String... args) {
+        return start(WebApplicationType.NONE, args);
+    }
+
+    public static ConfigurableApplicationContext startWebApplication(String... args) {
+        return start(WebApplicationType.SERVLET, args);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... args) {
+        List<String> runArgs = new ArrayList<>(List.of("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"));
+        runArgs.addAll(List.of(args));
+        return new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .web(webApplicationType)
+                .run(runArgs.toArray(String[]::new));
+    }
+
+    public static long insertUsers(JdbcTemplate jdbcTemplate, int count) {
+        long firstId = nextId(jdbcTemplate, "users");
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[]{firstId + i, "user " + (firstId + i), "user" + (firstId + i) + "@shareit.ru"});
+        }
+        batchInsert(jdbcTemplate, "users", "insert into users (id, name, email) values (?, ?, ?)", batch);
+        return firstId;
+    }
+
+    public static long insertItems(JdbcTemplate jdbcTemplate, long ownerId, int count) {
+        long firstId = nextId(jdbcTemplate, "items");
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[]{firstId + i, "вещь " + (firstId + i), "описание вещи " + (firstId + i), true, ownerId});
+        }
+        batchInsert(jdbcTemplate, "items",
+                "insert into items (id, name, description, is_available, owner_id) values (?, ?, ?, ?, ?)", batch);
+        return firstId;
+    }
+
+    /**
+     * Бронирования разбросаны на год назад и вперёд от текущего момента, статусы распределены равномерно.
+     */
+    public static void insertBookings(JdbcTemplate jdbcTemplate, long firstItemId, int itemCount,
+                                      long firstBookerId, int bookerCount, int bookingsPerItem, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        Statuses[] statuses = Statuses.values();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusHours(random.nextInt(2 * 365 * 24) - 365 * 24);
+                LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+                batch.add(new Object[]{start, end, firstItemId + i, firstBookerId + random.nextInt(bookerCount),
+                    statuses[random.nextInt(statuses.length)].name(), Phases.at(start, end, now).name()});
+            }
+        }
+        batchInsert(jdbcTemplate, "bookings", "insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, ?, ?)", batch);
+    }
+
+    public static void insertComments(JdbcTemplate jdbcTemplate, long firstItemId, int itemCount,
+                                      long firstAuthorId, int authorCount, int commentsPerItem, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            for (int j = 0; j < commentsPerItem; j++) {
+                batch.add(new Object[]{"отзыв " + j, firstItemId + i, firstAuthorId + random.nextInt(authorCount),
+                    now.minusDays(random.nextInt(365))});
+            }
+        }
+        batchInsert(jdbcTemplate, "comments",
+                "insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", batch);
+    }
+
+    private static long nextId(JdbcTemplate jdbcTemplate, String table) {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return maxId == null ? 1 : maxId + 1;
+    }
+
+    /**
+     * После вставки с явными id последовательность таблицы сдвигается за максимальный id,
+     * чтобы Hibernate не выдал уже занятые значения.
+     */
+    private static void batchInsert(JdbcTemplate jdbcTemplate, String table, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        jdbcTemplate.execute("alter sequence " + table + "_seq restart with (select coalesce(max(id), 0) + 50 from " +
+                table + ")");
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный сценарий для HTTP-слоя: параллельные клиенты запрашивают списки бронирований и вещей
+ * владельцев у приложения, запущенного с пулом платформенных потоков Tomcat или с виртуальными потоками.
+ * Число клиентов задаётся через -t, например:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="WebThreadingBenchmark -f 1 -t 400"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(256)
+public class WebThreadingBenchmark {
+
+    private static final int OWNER_COUNT = 100;
+    private static final int ITEMS_PER_OWNER = 10;
+    private static final int BOOKER_COUNT = 1_000;
+    private static final int BOOKINGS_PER_ITEM = 20;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private int poolSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private long firstOwnerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startWebApplication("--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                "--spring.datasource.hikari.connection-timeout=30000");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        firstOwnerId = BenchmarkSupport.insertUsers(jdbcTemplate, OWNER_COUNT);
+        long firstBookerId = BenchmarkSupport.insertUsers(jdbcTemplate, BOOKER_COUNT);
+        long firstItemId = 0;
+        for (int i = 0; i < OWNER_COUNT; i++) {
+            long itemId = BenchmarkSupport.insertItems(jdbcTemplate, firstOwnerId + i, ITEMS_PER_OWNER);
+            firstItemId = i == 0 ? itemId : firstItemId;
+        }
+        BenchmarkSupport.insertBookings(jdbcTemplate, firstItemId, OWNER_COUNT * ITEMS_PER_OWNER,
+                firstBookerId, BOOKER_COUNT, BOOKINGS_PER_ITEM, random);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder()
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpClient.close();
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private final Random random = new Random();
+    }
+
+    @Benchmark
+    public int ownerBookings(Client client) throws IOException, InterruptedException {
+        return get("/bookings/owner?state=ALL&size=20", nextOwner(client));
+    }
+
+    @Benchmark
+    public int ownerItems(Client client) throws IOException, InterruptedException {
+        return get("/items", nextOwner(client));
+    }
+
+    private long nextOwner(Client client) {
+        return firstOwnerId + client.random.nextInt(OWNER_COUNT);
+    }
+
+    private int get(String path, long userId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Неожиданный ответ " + response.statusCode() + ": " + response.body());
+        }
+        return response.body().length();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование бронирований в BookingDto: одиночное и страницей, как в списках бронирований.
+ * Запуск с замером аллокаций: mvn -Pjmh test-compile exec:exec -Djmh.args="BookingMapperBenchmark -f 1 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingMapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private Booking booking;
+    private List<Booking> page;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        LocalDateTime now = LocalDateTime.now();
+        page = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Item item = new Item((long) i, "вещь " + i, "описание " + i, true, owner, null, 0L);
+            Booking current = new Booking();
+            current.setId((long) i);
+            current.setStart(now.plusDays(i));
+            current.setEnd(now.plusDays(i + 1));
+            current.setItem(item);
+            current.setBooker(new User(i + 2L, "booker " + i, "booker" + i + "@shareit.ru"));
+            current.setStatus(Statuses.values()[i % Statuses.values().length]);
+            page.add(current);
+        }
+        booking = page.getFirst();
+    }
+
+    @Benchmark
+    public BookingDto mapToBookingDto() {
+        return BookingMapper.INSTANCE.mapToBookingDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> mapPage() {
+        return page.stream()
+                .map(BookingMapper.INSTANCE::mapToBookingDto)
+                .toList();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BenchmarkSupport;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Списки бронирований арендатора и владельца: первая страница и полный список.
+ * База: 100 владельцев по 10 вещей, по 100 бронирований на вещь от 1 000 арендаторов.
+ * Запуск: mvn -Pjmh test-compile exec:exec -Djmh.args="BookingServiceBenchmark -f 1 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingServiceBenchmark {
+
+    private static final int OWNER_COUNT = 100;
+    private static final int ITEMS_PER_OWNER = 10;
+    private static final int BOOKER_COUNT = 1_000;
+    private static final int BOOKINGS_PER_ITEM = 100;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"ALL", "PAST", "FUTURE", "WAITING"})
+    private String state;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        bookingService = context.getBean(BookingService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+
+        long firstOwnerId = BenchmarkSupport.insertUsers(jdbcTemplate, OWNER_COUNT);
+        long firstBookerId = BenchmarkSupport.insertUsers(jdbcTemplate, BOOKER_COUNT);
+        long firstItemId = 0;
+        for (int i = 0; i < OWNER_COUNT; i++) {
+            long itemId = BenchmarkSupport.insertItems(jdbcTemplate, firstOwnerId + i, ITEMS_PER_OWNER);
+            firstItemId = i == 0 ? itemId : firstItemId;
+        }
+        BenchmarkSupport.insertBookings(jdbcTemplate, firstItemId, OWNER_COUNT * ITEMS_PER_OWNER,
+                firstBookerId, BOOKER_COUNT, BOOKINGS_PER_ITEM, random);
+        ownerId = firstOwnerId;
+        bookerId = firstBookerId;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerFirstPage() {
+        return bookingService.findAllBookingsByUser(bookerId, state, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerAll() {
+        return bookingService.findAllBookingsByUser(bookerId, state, null, 0, null);
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerFirstPage() {
+        return bookingService.findAllBookingsByOwnerItems(ownerId, state, null, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerAll() {
+        return bookingService.findAllBookingsByOwnerItems(ownerId, state, null, 0, null);
+    }
+}
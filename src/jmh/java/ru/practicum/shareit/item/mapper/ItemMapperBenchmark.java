@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.mapper;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование вещи с датами бронирований и отзывами в ExtendedItemDto.
+ * Запуск с замером аллокаций: mvn -Pjmh test-compile exec:exec -Djmh.args="ItemMapperBenchmark -f 1 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemMapperBenchmark {
+
+    @Param({"0", "5", "50"})
+    private int commentCount;
+
+    private Item item;
+    private List<Comment> comments;
+    private Optional<LocalDateTime> lastBooking;
+    private Optional<LocalDateTime> nextBooking;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@shareit.ru");
+        item = new Item(1L, "Дрель", "Ударная дрель", true, owner, null, 0L);
+        LocalDateTime now = LocalDateTime.now();
+        comments = new ArrayList<>();
+        for (int i = 0; i < commentCount; i++) {
+            Comment comment = new Comment();
+            comment.setId((long) i);
+            comment.setText("Отличная дрель " + i);
+            comment.setItem(item);
+            comment.setAuthor(new User(i + 2L, "author " + i, "author" + i + "@shareit.ru"));
+            comment.setCreated(now.minusDays(i));
+            comments.add(comment);
+        }
+        lastBooking = Optional.of(now.minusDays(1));
+        nextBooking = Optional.of(now.plusDays(1));
+    }
+
+    @Benchmark
+    public ExtendedItemDto mapToExtendedItemDto() {
+        return ItemMapper.INSTANCE.mapToExtendedItemDto(item, lastBooking, nextBooking, comments);
+    }
+}
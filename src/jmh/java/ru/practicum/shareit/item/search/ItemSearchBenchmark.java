@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BenchmarkSupport;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.service.ExtendedItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение поиска вещей через триграммный индекс и через запрос с like по всей таблице.
+ * Запуск: mvn -Pjmh test-compile exec:exec -Djmh.args="ItemSearchBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {"дрель", "молоток", "пила", "шуруповерт", "лестница", "палатка",
+        "велосипед", "самокат", "проектор", "камера", "штатив", "рюкзак", "удочка", "лодка", "гитара"};
+    private static final String RARE_WORD = "перфоратор";
+
+    @Param({"10000", "100000", "1000000"})
+    private int itemCount;
+
+    @Param({"перфоратор", "дрель"})
+    private String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private ExtendedItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        itemRepository = context.getBean(ItemRepository.class);
+        itemService = context.getBean(ExtendedItemService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ItemSearchIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> likeScan() {
+        return itemRepository.findByText(text).stream()
+                .map(ItemMapper.INSTANCE::mapToItemDto)
+                .toList();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> trigramIndex() {
+        return itemService.getItemByText(text);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@shareit.ru')");
+        Long ownerId = jdbcTemplate.queryForObject("select max(id) from users", Long.class);
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = (i % 1000 == 0 ? RARE_WORD : WORDS[random.nextInt(WORDS.length)]) +
+                    " в хорошем состоянии, " + WORDS[random.nextInt(WORDS.length)];
+            batch.add(new Object[]{name, description, random.nextInt(10) != 0, ownerId});
+            if (batch.size() == 10_000 || i == itemCount - 1) {
+                jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id) " +
+                        "values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
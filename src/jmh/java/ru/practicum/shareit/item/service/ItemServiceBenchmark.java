@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BenchmarkSupport;
+import ru.practicum.shareit.item.dto.ExtendedItemDto;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список вещей владельца с последним и ближайшим бронированием и отзывами (getItemsData)
+ * и карточка одной вещи. База: 10 000 чужих вещей, по 10 бронирований и 3 отзыва на вещь.
+ * Запуск: mvn -Pjmh test-compile exec:exec -Djmh.args="ItemServiceBenchmark -f 1 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+    private static final int OTHER_ITEM_COUNT = 10_000;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Param({"10", "100", "1000"})
+    private int ownerItemCount;
+
+    private ConfigurableApplicationContext context;
+    private ExtendedItemService itemService;
+    private long ownerId;
+    private long ownerItemId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        itemService = context.getBean(ExtendedItemService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+
+        long firstUserId = BenchmarkSupport.insertUsers(jdbcTemplate, USER_COUNT);
+        long otherItemId = BenchmarkSupport.insertItems(jdbcTemplate, firstUserId + 1, OTHER_ITEM_COUNT);
+        ownerId = firstUserId;
+        ownerItemId = BenchmarkSupport.insertItems(jdbcTemplate, ownerId, ownerItemCount);
+
+        BenchmarkSupport.insertBookings(jdbcTemplate, otherItemId, OTHER_ITEM_COUNT + ownerItemCount,
+                firstUserId + 2, USER_COUNT - 2, BOOKINGS_PER_ITEM, random);
+        BenchmarkSupport.insertComments(jdbcTemplate, otherItemId, OTHER_ITEM_COUNT + ownerItemCount,
+                firstUserId + 2, USER_COUNT - 2, COMMENTS_PER_ITEM, random);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ExtendedItemDto> getAllItemsById() {
+        return itemService.getAllItemsById(ownerId);
+    }
+
+    @Benchmark
+    public ExtendedItemDto getItemById() {
+        return itemService.getItemById(ownerItemId, ownerId);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.BenchmarkSupport;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Массовое сохранение вещей и отзывов к ним через репозитории в одной транзакции.
+ * Результат - число сохранённых пачек в секунду.
+ * Запуск: mvn -Pjmh test-compile exec:exec -Djmh.args="BulkInsertBenchmark -f 1"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BulkInsertBenchmark {
+
+    @Param({"100", "1000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private CommentRepository commentRepository;
+    private UserRepository userRepository;
+    private long ownerId;
+    private long authorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startApplication();
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        ownerId = BenchmarkSupport.insertUsers(context.getBean(JdbcTemplate.class), 2);
+        authorId = ownerId + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveItemsWithComments() {
+        return transactionTemplate.execute(status -> {
+            User owner = userRepository.getReferenceById(ownerId);
+            User author = userRepository.getReferenceById(authorId);
+            List<Item> items = new ArrayList<>(rowCount);
+            for (int i = 0; i < rowCount; i++) {
+                items.add(new Item(null, "вещь " + i, "описание вещи " + i, true, owner, null, null));
+            }
+            itemRepository.saveAll(items);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Comment> comments = new ArrayList<>(rowCount);
+            for (Item item : items) {
+                Comment comment = new Comment();
+                comment.setText("отзыв");
+                comment.setItem(item);
+                comment.setAuthor(author);
+                comment.setCreated(now);
+                comments.add(comment);
+            }
+            commentRepository.saveAll(comments);
+            return items.size() + comments.size();
+        });
+    }
+}
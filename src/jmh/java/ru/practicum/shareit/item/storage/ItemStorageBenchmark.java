@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.storage;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.BenchmarkSupport;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Хранилище вещей в памяти против JPA-репозитория на H2 при параллельных чтениях, поиске и вставках.
+ * Данные в обоих вариантах одинаковые: "вещь N" / "описание вещи N".
+ * Запуск: mvn -Pjmh test-compile exec:exec -Djmh.args="ItemStorageBenchmark -f 1 -t 4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class ItemStorageBenchmark {
+
+    @Param({"IN_MEMORY", "JPA"})
+    private String backend;
+
+    @Param({"100000"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private Storage storage;
+    private long firstItemId;
+    private User owner;
+    private String searchText;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("JPA".equals(backend)) {
+            context = BenchmarkSupport.startApplication();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            long ownerId = BenchmarkSupport.insertUsers(jdbcTemplate, 1);
+            owner = context.getBean(UserRepository.class).findById(ownerId).orElseThrow();
+            firstItemId = BenchmarkSupport.insertItems(jdbcTemplate, ownerId, itemCount);
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            storage = new Storage() {
+                @Override
+                public Item findById(long itemId) {
+                    return itemRepository.findById(itemId).orElseThrow();
+                }
+
+                @Override
+                public Collection<Item> findByText(String text) {
+                    return itemRepository.findByText(text);
+                }
+
+                @Override
+                public Item create(Item item) {
+                    return itemRepository.save(item);
+                }
+            };
+        } else {
+            owner = new User(1L, "user 1", "user1@shareit.ru");
+            InMemoryItemStorage itemStorage = new InMemoryItemStorage();
+            for (int i = 0; i < itemCount; i++) {
+                itemStorage.createItem(new Item(null, "вещь " + (i + 1), "описание вещи " + (i + 1), true, owner,
+                        null, null));
+            }
+            firstItemId = 1;
+            storage = new Storage() {
+                @Override
+                public Item findById(long itemId) {
+                    return itemStorage.getItemById(itemId);
+                }
+
+                @Override
+                public Collection<Item> findByText(String text) {
+                    return itemStorage.getItemByText(text);
+                }
+
+                @Override
+                public Item create(Item item) {
+                    return itemStorage.createItem(item);
+                }
+            };
+        }
+        searchText = "вещь " + (firstItemId + itemCount * 3L / 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Item findById() {
+        return storage.findById(firstItemId + ThreadLocalRandom.current().nextInt(itemCount));
+    }
+
+    @Benchmark
+    public Collection<Item> findByText() {
+        return storage.findByText(searchText);
+    }
+
+    @Benchmark
+    public Item create() {
+        return storage.create(new Item(null, "новая вещь", "описание новой вещи", true, owner, null, null));
+    }
+
+    private interface Storage {
+
+        Item findById(long itemId);
+
+        Collection<Item> findByText(String text);
+
+        Item create(Item item);
+    }
+}
@@ -1,15 +1,23 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Function;
 
 @Slf4j
 @RestController
@@ -17,24 +25,57 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(BookingControllerHeaderConstants.PATH)
     public BookingDto findBooking(@PathVariable(BookingControllerHeaderConstants.ID) Long bookingId,
-                                  @RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId) {
+                                  @RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                  WebRequest request) {
+        String eTag = bookingService.getBookingETag(bookingId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return bookingService.findBooking(bookingId, userId);
     }
 
     @GetMapping
     public List<BookingDto> findAllBookingsByUser(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
-                                                  @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByUser(userId, state);
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                  @RequestParam(name = "after", required = false) Long after,
+                                                  @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                  @RequestParam(name = "size", required = false) Integer size) {
+        return bookingService.findAllBookingsByUser(userId, state, after, from, size);
+    }
+
+    @GetMapping(produces = BookingControllerHeaderConstants.APPLICATION_NDJSON)
+    public StreamingResponseBody streamAllBookingsByUser(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                         @RequestParam(name = "state", defaultValue = "ALL") String state) {
+        return outputStream -> writeNdjson(outputStream,
+                after -> bookingService.findAllBookingsByUser(userId, state, after, 0, STREAM_BATCH_SIZE));
     }
 
     @GetMapping(BookingControllerHeaderConstants.OWNER_PATH)
     public List<BookingDto> findAllBookingsByOwnerItems(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
-                                                        @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.findAllBookingsByOwnerItems(userId, state);
+                                                        @RequestParam(name = "state", defaultValue = "ALL") String state,
+                                                        @RequestParam(name = "after", required = false) Long after,
+                                                        @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                        @RequestParam(name = "size", required = false) Integer size) {
+        return bookingService.findAllBookingsByOwnerItems(userId, state, after, from, size);
+    }
+
+    @GetMapping(path = BookingControllerHeaderConstants.OWNER_PATH, produces = BookingControllerHeaderConstants.APPLICATION_NDJSON)
+    public StreamingResponseBody streamAllBookingsByOwnerItems(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                               @RequestParam(name = "state", defaultValue = "ALL") String state) {
+        return outputStream -> writeNdjson(outputStream,
+                after -> bookingService.findAllBookingsByOwnerItems(userId, state, after, 0, STREAM_BATCH_SIZE));
+    }
+
+    @GetMapping(BookingControllerHeaderConstants.OWNER_SUMMARY_PATH)
+    public OwnerBookingSummaryDto getOwnerSummary(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId) {
+        return bookingService.getOwnerSummary(userId);
     }
 
     @PostMapping
@@ -44,6 +85,12 @@ public class BookingController {
         return bookingService.createBooking(userId, booking);
     }
 
+    @PostMapping(BookingControllerHeaderConstants.BATCH_PATH)
+    public List<BookingBatchResult> createBatch(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                @RequestBody List<NewBookingRequest> bookings) {
+        return bookingService.createBookings(userId, bookings);
+    }
+
     @PutMapping
     public BookingDto update(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
                              @RequestBody UpdateBookingRequest request) {
@@ -63,4 +110,19 @@ public class BookingController {
 
     }
 
+    private void writeNdjson(OutputStream outputStream, Function<Long, List<BookingDto>> pageLoader) throws IOException {
+        Long after = null;
+        List<BookingDto> page;
+        do {
+            page = pageLoader.apply(after);
+            for (BookingDto booking : page) {
+                outputStream.write(objectMapper.writeValueAsBytes(booking));
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+            if (!page.isEmpty()) {
+                after = page.getLast().getId();
+            }
+        } while (page.size() == STREAM_BATCH_SIZE);
+    }
 }
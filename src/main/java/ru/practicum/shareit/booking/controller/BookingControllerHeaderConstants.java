@@ -4,5 +4,10 @@ public class BookingControllerHeaderConstants {
     public static final String PATH = "/{id}";
     public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
     public static final String OWNER_PATH = "/owner";
+    public static final String OWNER_SUMMARY_PATH = OWNER_PATH + "/summary";
+    public static final String OWNER_EXPORT_PATH = OWNER_PATH + "/export";
+    public static final String BATCH_PATH = "/batch";
+    public static final String SUBSCRIBE_PATH = "/subscribe";
     public static final String ID = "id";
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.export.BookingExportService;
+import ru.practicum.shareit.enums.ExportFormats;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Выгрузка читает бронирования потоком из базы данных, поэтому в профиле in-memory её нет.
+ */
+@RestController
+@RequestMapping(path = "/bookings")
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class BookingExportController {
+
+    private final BookingExportService bookingExportService;
+
+    @GetMapping(BookingControllerHeaderConstants.OWNER_EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                                     @RequestParam(name = "format", defaultValue = "csv") String format) {
+        ExportFormats exportFormat = bookingExportService.prepareOwnerExport(userId, format);
+        ContentDisposition attachment = ContentDisposition.attachment()
+                .filename(String.format("bookings-owner-%d.%s", userId, exportFormat.getExtension()))
+                .build();
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.getMediaType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment.toString())
+                .body(outputStream -> bookingExportService.exportOwnerBookings(userId, exportFormat, outputStream));
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.notification.BookingNotificationHub;
+
+/**
+ * Уведомления строятся по событиям изменений бронирований в базе данных, поэтому в профиле in-memory их нет.
+ */
+@RestController
+@RequestMapping(path = "/bookings")
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class BookingNotificationController {
+
+    private final BookingNotificationHub bookingNotificationHub;
+
+    @GetMapping(path = BookingControllerHeaderConstants.SUBSCRIBE_PATH, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(BookingControllerHeaderConstants.X_SHARER_USER_ID) Long userId) {
+        return bookingNotificationHub.subscribe(userId);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import ru.practicum.shareit.enums.Statuses;
+
+import java.time.LocalDateTime;
+
+@JsonPropertyOrder({"id", "start", "end", "status", "itemId", "itemName", "bookerId", "bookerName"})
+public record BookingExportRow(Long id, LocalDateTime start, LocalDateTime end, Statuses status,
+                               Long itemId, String itemName, Long bookerId, String bookerName) {
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.enums.Statuses;
+
+import java.time.LocalDateTime;
+
+public record BookingNotificationDto(Long bookingId, Long itemId, Long bookerId, LocalDateTime start,
+                                     LocalDateTime end, Statuses status, boolean deleted) {
+
+    public static BookingNotificationDto of(BookingChangedEvent event) {
+        return new BookingNotificationDto(event.bookingId(), event.itemId(), event.bookerId(), event.start(),
+                event.end(), event.status(), event.deleted());
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.booking.dto;
+
+public record BookingVersion(Long bookingId, Long version, Long bookerId, Long ownerId, Long itemVersion) {
+}
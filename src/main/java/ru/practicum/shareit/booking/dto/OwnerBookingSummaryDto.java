@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerBookingSummaryDto {
+    private long all;
+    private long waiting;
+    private long current;
+    private long future;
+    private long past;
+    private long rejected;
+    private List<Long> waitingIds;
+}
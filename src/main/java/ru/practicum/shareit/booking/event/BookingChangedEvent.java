@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.enums.Statuses;
+
+import java.time.LocalDateTime;
+
+public record BookingChangedEvent(Long bookingId, Long itemId, Long ownerId, Long bookerId, LocalDateTime start,
+                                  LocalDateTime end, Statuses status, boolean created, boolean deleted) {
+
+    public static BookingChangedEvent created(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd(), booking.getStatus(), true, false);
+    }
+
+    public static BookingChangedEvent saved(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), booking.getStart(), booking.getEnd(), booking.getStatus(), false, false);
+    }
+
+    public static BookingChangedEvent deleted(Booking booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getItem().getId(), booking.getItem().getOwner().getId(),
+                booking.getBooker().getId(), null, null, null, false, true);
+    }
+}
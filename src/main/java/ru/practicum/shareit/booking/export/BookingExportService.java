@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.enums.ExportFormats;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка истории бронирований владельца. Строки читаются курсором в одной read-only транзакции
+ * и сразу пишутся в ответ, так что память не растёт с размером истории.
+ */
+@Slf4j
+@Service
+@Profile("!in-memory")
+@Timed(value = "shareit.service", histogram = true)
+public class BookingExportService {
+
+    private static final int FLUSH_EVERY = 500;
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private static final ObjectWriter CSV_WRITER = CSV_MAPPER
+            .writer(CSV_MAPPER.schemaFor(BookingExportRow.class).withHeader())
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ObjectWriter ndjsonWriter;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public BookingExportService(BookingRepository bookingRepository,
+                                UserRepository userRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.ndjsonWriter = objectMapper.writerFor(BookingExportRow.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.primaryReadTransactionTemplate = ReplicaRoutingDataSource.primaryReadTransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Проверки выполняются до начала ответа: после первой записанной строки статус уже не изменить.
+     * Пользователь проверяется на основной базе, реплика может ещё не знать о только что созданном.
+     */
+    public ExportFormats prepareOwnerExport(Long ownerId, String format) {
+        if (!Boolean.TRUE.equals(primaryReadTransactionTemplate.execute(status -> userRepository.existsById(ownerId)))) {
+            throw new NotFoundException(String.format("Пользователь c id %d не найден", ownerId));
+        }
+        for (ExportFormats exportFormat : ExportFormats.values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new ValidationException(String.format("Неизвестный формат выгрузки: %s", format));
+    }
+
+    public void exportOwnerBookings(Long ownerId, ExportFormats format, OutputStream outputStream) throws IOException {
+        log.info("GET /bookings/owner/export - выгрузка бронирований владельца в {}", format);
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookingExportRow> rows = bookingRepository.streamAllByOwnerId(ownerId);
+                     SequenceWriter writer = writerFor(format).writeValues(outputStream)) {
+                    long written = write(rows.iterator(), writer);
+                    if (format == ExportFormats.NDJSON && written > 0) {
+                        writer.flush();
+                        outputStream.write('\n');
+                    }
+                    log.info("Выгружено бронирований владельца {}: {}", ownerId, written);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // клиент закрыл соединение, транзакция и курсор уже закрыты
+            throw e.getCause();
+        }
+    }
+
+    private ObjectWriter writerFor(ExportFormats format) {
+        return switch (format) {
+            case CSV -> CSV_WRITER;
+            case NDJSON -> ndjsonWriter;
+        };
+    }
+
+    private long write(Iterator<BookingExportRow> rows, SequenceWriter writer) throws IOException {
+        long written = 0;
+        while (rows.hasNext()) {
+            writer.write(rows.next());
+            if (++written % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        return written;
+    }
+}
@@ -44,10 +44,14 @@ public interface BookingMapper {
     @Mapping(source = "item", target = "item")
     @Mapping(source = "booker", target = "booker")
     @Mapping(target = "status", expression = "java(ru.practicum.shareit.enums.Statuses.WAITING)")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "phase", expression = "java(ru.practicum.shareit.enums.Phases.at(request.getStart(), request.getEnd(), java.time.LocalDateTime.now()))")
     Booking mapToBooking(NewBookingRequest request, User booker, Item item);
 
     @Mapping(target = "item", ignore = true)
     @Mapping(target = "booker", ignore = true)
+    @Mapping(target = "phase", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateBookingFromRequest(UpdateBookingRequest updateRequest, @MappingTarget Booking booking);
 
     List<BookingDto> toDtoList(List<Booking> bookings);
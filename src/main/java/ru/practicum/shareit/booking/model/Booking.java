@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import ru.practicum.shareit.enums.Phases;
 import ru.practicum.shareit.enums.Statuses;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -13,13 +14,20 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_AND_BOOKER, attributeNodes = {
+    @NamedAttributeNode("item"),
+    @NamedAttributeNode("booker")
+})
 @Getter
 @Setter
 @ToString
 public class Booking {
 
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date")
@@ -41,4 +49,12 @@ public class Booking {
     @Column(name = "status", nullable = false)
     @Enumerated(EnumType.STRING)
     private Statuses status;
+
+    @Column(name = "phase", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Phases phase;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
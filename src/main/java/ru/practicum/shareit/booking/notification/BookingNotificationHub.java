@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking.notification;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Подписки пользователей на изменения бронирований по Server-Sent Events.
+ * Открытое соединение не занимает поток, а рассылка выполняется в виртуальных потоках,
+ * поэтому медленный клиент не задерживает остальных и поток, завершивший транзакцию.
+ * У каждого соединения своя очередь, которую разбирает не более одного потока,
+ * поэтому события приходят клиенту в порядке публикации.
+ */
+@Slf4j
+@Component
+@Profile("!in-memory")
+public class BookingNotificationHub {
+
+    private static final String EVENT_NAME = "booking";
+
+    private final Duration timeout;
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BookingNotificationHub(@Value("${shareit.booking.notifications.timeout:PT30M}") Duration timeout,
+                                  UserRepository userRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.userRepository = userRepository;
+        this.primaryReadTransactionTemplate =
+                ReplicaRoutingDataSource.primaryReadTransactionTemplate(transactionTemplate.getTransactionManager());
+        Gauge.builder("shareit.bookings.subscribers", connections, AtomicInteger::get)
+                .description("Открытые подписки на изменения бронирований")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        // проверка идёт на основную базу, а не на отстающую реплику
+        if (!Boolean.TRUE.equals(primaryReadTransactionTemplate.execute(status -> userRepository.existsById(userId)))) {
+            throw new NotFoundException(String.format("Пользователь c id %d не найден", userId));
+        }
+        SseEmitter emitter = createEmitter();
+        Subscription subscription = new Subscription(userId, emitter);
+        // комментарий сразу отправляет заголовки ответа, и клиент видит, что подписка открыта
+        subscription.enqueue(() -> SseEmitter.event().comment("subscribed"));
+        subscribers.compute(userId, (id, subscriptions) -> {
+            Set<Subscription> result = subscriptions == null ? ConcurrentHashMap.newKeySet() : subscriptions;
+            result.add(subscription);
+            return result;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingNotificationDto notification = BookingNotificationDto.of(event);
+        Supplier<SseEmitter.SseEventBuilder> message = () -> SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(notification, MediaType.APPLICATION_JSON);
+        publish(event.bookerId(), message);
+        if (!event.ownerId().equals(event.bookerId())) {
+            publish(event.ownerId(), message);
+        }
+    }
+
+    /**
+     * Периодический комментарий не даёт прокси закрыть простаивающее соединение
+     * и выявляет клиентов, которые отключились без закрытия соединения.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking.notifications.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscribers.keySet().forEach(userId -> publish(userId, () -> SseEmitter.event().comment("heartbeat")));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(subscriptions ->
+                subscriptions.forEach(subscription -> subscription.emitter.complete()));
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    protected SseEmitter createEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void publish(Long userId, Supplier<SseEmitter.SseEventBuilder> message) {
+        Set<Subscription> subscriptions = subscribers.get(userId);
+        if (subscriptions == null) {
+            return;
+        }
+        subscriptions.forEach(subscription -> subscription.enqueue(message));
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscribers.computeIfPresent(subscription.userId, (id, subscriptions) -> {
+            if (subscriptions.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private final class Subscription {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        // событие собирается для каждого соединения: SseEventBuilder нельзя отправить повторно
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(Supplier<SseEmitter.SseEventBuilder> message) {
+            outbox.add(message);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Supplier<SseEmitter.SseEventBuilder> message;
+                while ((message = outbox.poll()) != null) {
+                    if (!send(message)) {
+                        outbox.clear();
+                    }
+                }
+                draining.set(false);
+                // событие, добавленное после опустошения очереди, но до сброса флага, забирает этот же поток
+            } while (!outbox.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private boolean send(Supplier<SseEmitter.SseEventBuilder> message) {
+            try {
+                emitter.send(message.get());
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // клиент отключился, контейнер завершит запрос сам
+                log.debug("Не удалось отправить событие пользователю {}: {}", userId, e.getMessage());
+                unsubscribe(this);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.booking.phase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Phases;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Переводит бронирования между фазами FUTURE -> CURRENT -> PAST по мере наступления дат.
+ * В очереди держатся только границы ближайшего окна {@link #HORIZON}, окно дочитывается по индексам фазы и дат.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPhaseScheduler {
+
+    private static final Duration HORIZON = Duration.ofMinutes(10);
+
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PriorityBlockingQueue<PhaseBoundary> boundaries =
+            new PriorityBlockingQueue<>(64, Comparator.comparing(PhaseBoundary::at));
+    private volatile LocalDateTime loadedUntil;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = transactionTemplate.execute(status ->
+                bookingRepository.markAllPast(now) + bookingRepository.markAllCurrent(now));
+        log.info("Фазы бронирований приведены к текущему времени, обновлено: {}", updated);
+        boundaries.clear();
+        loadedUntil = now;
+        load(now.plus(HORIZON));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase-tick}")
+    public void advance() {
+        LocalDateTime until = loadedUntil;
+        if (until == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (until.isBefore(now.plus(HORIZON.dividedBy(2)))) {
+            load(now.plus(HORIZON));
+        }
+
+        List<PhaseBoundary> due = new ArrayList<>();
+        List<Long> started = new ArrayList<>();
+        List<Long> finished = new ArrayList<>();
+        PhaseBoundary boundary;
+        while ((boundary = boundaries.peek()) != null && boundary.at().isBefore(now)) {
+            boundary = boundaries.poll();
+            due.add(boundary);
+            (boundary.phase() == Phases.CURRENT ? started : finished).add(boundary.bookingId());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!finished.isEmpty()) {
+                    bookingRepository.markPast(finished, now);
+                }
+                if (!started.isEmpty()) {
+                    bookingRepository.markCurrent(started, now);
+                }
+            });
+        } catch (RuntimeException e) {
+            // границы возвращаются в очередь и обработаются на следующем такте, обновления фаз идемпотентны
+            boundaries.addAll(due);
+            throw e;
+        }
+        log.debug("Смена фаз бронирований: начались {}, завершились {}", started.size(), finished.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        LocalDateTime until = loadedUntil;
+        if (until == null || event.deleted() || event.start() == null || event.end() == null) {
+            return;
+        }
+        if (!event.start().isAfter(until)) {
+            boundaries.add(new PhaseBoundary(event.start(), event.bookingId(), Phases.CURRENT));
+        }
+        if (!event.end().isAfter(until)) {
+            boundaries.add(new PhaseBoundary(event.end(), event.bookingId(), Phases.PAST));
+        }
+    }
+
+    private void load(LocalDateTime until) {
+        LocalDateTime from = loadedUntil;
+        // граница окна сдвигается до чтения, чтобы бронирования, созданные во время чтения, попали в очередь по событию
+        loadedUntil = until;
+        List<PhaseBoundary> loaded = new ArrayList<>();
+        try {
+            loaded.addAll(bookingRepository.findStartBoundaries(from, until));
+            loaded.addAll(bookingRepository.findEndBoundaries(from, until));
+        } catch (RuntimeException e) {
+            // окно будет прочитано заново на следующем такте; попавшие в очередь по событию границы задвоятся без вреда
+            loadedUntil = from;
+            throw e;
+        }
+        boundaries.addAll(loaded);
+    }
+}
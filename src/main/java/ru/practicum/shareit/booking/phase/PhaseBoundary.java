@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.phase;
+
+import ru.practicum.shareit.enums.Phases;
+
+import java.time.LocalDateTime;
+
+public record PhaseBoundary(LocalDateTime at, Long bookingId, Phases phase) {
+}
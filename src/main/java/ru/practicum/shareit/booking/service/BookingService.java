@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
 
 import java.util.List;
@@ -9,11 +11,17 @@ import java.util.List;
 public interface BookingService {
     BookingDto createBooking(Long userId, NewBookingRequest request);
 
+    List<BookingBatchResult> createBookings(Long userId, List<NewBookingRequest> requests);
+
     BookingDto findBooking(Long bookingId, Long userId);
 
-    List<BookingDto> findAllBookingsByUser(Long userId, String state);
+    String getBookingETag(Long bookingId, Long userId);
+
+    List<BookingDto> findAllBookingsByUser(Long userId, String state, Long after, Integer from, Integer size);
+
+    List<BookingDto> findAllBookingsByOwnerItems(Long userId, String state, Long after, Integer from, Integer size);
 
-    List<BookingDto> findAllBookingsByOwnerItems(Long userId, String state);
+    OwnerBookingSummaryDto getOwnerSummary(Long userId);
 
     BookingDto updateBooking(Long userId, UpdateBookingRequest request);
 
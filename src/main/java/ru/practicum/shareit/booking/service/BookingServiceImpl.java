@@ -1,17 +1,28 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
 import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.summary.OwnerBookingCounters;
+import ru.practicum.shareit.enums.Phases;
 import ru.practicum.shareit.enums.States;
 import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotItemOwnerException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -20,18 +31,31 @@ import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Profile("!in-memory")
 @Slf4j
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final LocalDateTime FIRST_PAGE_START = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final int MAX_BATCH_SIZE = 1_000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final OwnerBookingCounters ownerBookingCounters;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User findUserById(Long userId) {
         return userRepository.findById(userId)
@@ -43,11 +67,52 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь c id %d не найдена", itemId)));
     }
 
+    private void checkBookable(Long userId, Item item, NewBookingRequest request) {
+        if (!item.getAvailable()) {
+            throw new ValidationException("Вещь не доступна для бронирования!");
+        }
+
+        if (item.getOwner().getId().equals(userId)) {
+            throw new ValidationException("Владелец вещи не может забронировать свою же вещь");
+        }
+
+        if (request.getStart() == null || request.getEnd() == null || !request.getStart().isBefore(request.getEnd())) {
+            throw new ValidationException("Дата начала бронирования должна быть раньше даты окончания");
+        }
+    }
+
+    private void checkNotOverlapping(Long itemId, LocalDateTime start, LocalDateTime end, Long bookingId) {
+        if (bookingRepository.existsOverlapping(itemId, Statuses.APPROVED, start, end, bookingId)) {
+            throw new ConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
     private Booking findBookingById(Long bookingId) {
         return bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Бронирование c id %d не найдено", bookingId)));
     }
 
+    private LocalDateTime findCursorStart(Long after) {
+        if (after == null) {
+            return FIRST_PAGE_START;
+        }
+        return bookingRepository.findStartById(after)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование c id %d не найдено", after)));
+    }
+
+    private Pageable toPageable(Integer from, Integer size) {
+        if (size == null) {
+            if (from != null && from > 0) {
+                throw new ValidationException("Параметр from указывается вместе с size");
+            }
+            return Pageable.unpaged();
+        }
+        if (from == null || from < 0 || size <= 0) {
+            throw new ValidationException("Параметр from должен быть неотрицательным, а size - положительным");
+        }
+        return PageRequest.of(from / size, size);
+    }
+
     @Override
     @Transactional
     public BookingDto createBooking(Long userId, NewBookingRequest request) {
@@ -55,100 +120,196 @@ public class BookingServiceImpl implements BookingService {
         User user = findUserById(userId);
         Item item = findItemById(request.getItemId());
 
-        if (!item.getAvailable()) {
-            throw new ValidationException("Вещь не доступна для бронирования!");
-        }
-
-        if (item.getOwner().getId().equals(userId)) {
-            throw new ValidationException("Владелец вещи не может забронировать свою же вещь");
-        }
+        checkBookable(userId, item, request);
+        checkNotOverlapping(item.getId(), request.getStart(), request.getEnd(), 0L);
 
         Booking booking = BookingMapper.INSTANCE.mapToBooking(request, user, item);
 
         bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.created(booking));
 
         return BookingMapper.INSTANCE.mapToBookingDto(booking);
 
     }
 
     @Override
+    @Transactional
+    public List<BookingBatchResult> createBookings(Long userId, List<NewBookingRequest> requests) {
+        log.info("POST /bookings/batch - пакетное создание бронирований");
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format("За один запрос можно создать не более %d бронирований", MAX_BATCH_SIZE));
+        }
+        User user = findUserById(userId);
+        Set<Long> itemIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(NewBookingRequest::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> approvedByItem = findApprovedIntersecting(itemIds, requests);
+
+        List<BookingBatchResult> results = new ArrayList<>(requests.size());
+        List<Booking> bookings = new ArrayList<>();
+        List<BookingBatchResult> created = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            NewBookingRequest request = requests.get(i);
+            BookingBatchResult result = new BookingBatchResult(i, null, null);
+            try {
+                if (request == null) {
+                    throw new ValidationException("Бронирование не указано");
+                }
+                Item item = items.get(request.getItemId());
+                if (item == null) {
+                    throw new NotFoundException(String.format("Вещь c id %d не найдена", request.getItemId()));
+                }
+                checkBookable(userId, item, request);
+                boolean overlapping = approvedByItem.getOrDefault(item.getId(), List.of()).stream()
+                        .anyMatch(approved -> approved.getStart().isBefore(request.getEnd())
+                                && approved.getEnd().isAfter(request.getStart()));
+                if (overlapping) {
+                    throw new ConflictException("Вещь уже забронирована на эти даты");
+                }
+                bookings.add(BookingMapper.INSTANCE.mapToBooking(request, user, item));
+                created.add(result);
+            } catch (NotFoundException | ValidationException | ConflictException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+
+        bookingRepository.saveAll(bookings);
+        for (int i = 0; i < bookings.size(); i++) {
+            created.get(i).setBooking(BookingMapper.INSTANCE.mapToBookingDto(bookings.get(i)));
+            eventPublisher.publishEvent(BookingChangedEvent.created(bookings.get(i)));
+        }
+        log.info("Создано бронирований: {} из {}", bookings.size(), requests.size());
+        return results;
+    }
+
+    private Map<Long, List<Booking>> findApprovedIntersecting(Set<Long> itemIds, List<NewBookingRequest> requests) {
+        List<NewBookingRequest> dated = requests.stream()
+                .filter(request -> request != null && request.getStart() != null && request.getEnd() != null)
+                .toList();
+        if (itemIds.isEmpty() || dated.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime from = dated.stream().map(NewBookingRequest::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = dated.stream().map(NewBookingRequest::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+        return bookingRepository.findAllIntersecting(itemIds, Statuses.APPROVED, from, to).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookingDto findBooking(Long bookingId, Long userId) {
         log.info("GET /bookings/{booking-id} - получение бронирования");
         Booking booking = findBookingById(bookingId);
-        User user = findUserById(booking.getItem().getOwner().getId());
+        Long ownerId = booking.getItem().getOwner().getId();
 
-        if (!booking.getBooker().getId().equals(userId) && !user.getId().equals(userId)) {
+        if (!booking.getBooker().getId().equals(userId) && !ownerId.equals(userId)) {
             throw new ValidationException("Просмотр возможен либо автором бронирования, либо владельцем вещи");
         }
 
         return BookingMapper.INSTANCE.mapToBookingDto(booking);
     }
 
+    /**
+     * ETag бронирования по версиям бронирования и вещи без загрузки сущностей
+     * или null, если бронирование не найдено либо недоступно пользователю.
+     */
     @Override
-    public List<BookingDto> findAllBookingsByUser(Long userId, String state) {
+    @Transactional(readOnly = true)
+    public String getBookingETag(Long bookingId, Long userId) {
+        return bookingRepository.findVersionById(bookingId)
+                .filter(version -> version.bookerId().equals(userId) || version.ownerId().equals(userId))
+                .map(version -> String.format("booking-%d-%d-%d", version.bookingId(), version.version(),
+                        version.itemVersion()))
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllBookingsByUser(Long userId, String state, Long after, Integer from, Integer size) {
         log.info("GET /bookings?state={state} - получение списка всех бронирований текущего пользователя");
         States currentState = States.valueOf(state);
-        User user = findUserById(userId);
+        findUserById(userId);
+        LocalDateTime afterStart = findCursorStart(after);
+        Long afterId = after == null ? 0L : after;
+        Pageable pageable = toPageable(from, size);
         List<Booking> bookingsList = new ArrayList<>();
         switch (currentState) {
             case ALL:
-                bookingsList = bookingRepository.findAllByBookerId(userId);
+                bookingsList = bookingRepository.findAllByBookerId(userId, afterStart, afterId, pageable);
                 break;
             case CURRENT:
-                bookingsList = bookingRepository.findAllCurrentBookingByBookerId(userId);
+                bookingsList = bookingRepository.findAllCurrentBookingByBookerId(userId, afterStart, afterId, pageable);
                 break;
             case PAST:
-                bookingsList = bookingRepository.findAllPastBookingByBookerId(userId);
+                bookingsList = bookingRepository.findAllPastBookingByBookerId(userId, afterStart, afterId, pageable);
                 break;
             case FUTURE:
-                bookingsList = bookingRepository.findAllFutureBookingByBookerId(userId);
+                bookingsList = bookingRepository.findAllFutureBookingByBookerId(userId, afterStart, afterId, pageable);
                 break;
             case WAITING:
-                bookingsList = bookingRepository.findAllByBookerIdAndStatus(userId, Statuses.WAITING);
+                bookingsList = bookingRepository.findAllByBookerIdAndStatus(userId, Statuses.WAITING, afterStart, afterId, pageable);
                 break;
             case REJECTED:
-                bookingsList = bookingRepository.findAllByBookerIdAndStatus(userId, Statuses.REJECTED);
+                bookingsList = bookingRepository.findAllByBookerIdAndStatus(userId, Statuses.REJECTED, afterStart, afterId, pageable);
                 break;
         }
         return bookingsList.stream()
                 .map(BookingMapper.INSTANCE::mapToBookingDto)
-                .sorted(Comparator.comparing(BookingDto::getStart))
                 .toList();
     }
 
     @Override
-    public List<BookingDto> findAllBookingsByOwnerItems(Long userId, String state) {
+    @Transactional(readOnly = true)
+    public List<BookingDto> findAllBookingsByOwnerItems(Long userId, String state, Long after, Integer from, Integer size) {
         log.info("GET /bookings/owner?state={state} - получение списка бронирований для всех вещей текущего пользователя");
         States currentState = States.valueOf(state);
-        User user = findUserById(userId);
+        findUserById(userId);
+        LocalDateTime afterStart = findCursorStart(after);
+        Long afterId = after == null ? 0L : after;
+        Pageable pageable = toPageable(from, size);
         List<Booking> bookingsList = new ArrayList<>();
         switch (currentState) {
             case ALL:
-                bookingsList = bookingRepository.findAllByOwnerId(userId);
+                bookingsList = bookingRepository.findAllByOwnerId(userId, afterStart, afterId, pageable);
                 break;
             case CURRENT:
-                bookingsList = bookingRepository.findAllCurrentBookingByOwnerId(userId);
+                bookingsList = bookingRepository.findAllCurrentBookingByOwnerId(userId, afterStart, afterId, pageable);
                 break;
             case PAST:
-                bookingsList = bookingRepository.findAllPastBookingByOwnerId(userId);
+                bookingsList = bookingRepository.findAllPastBookingByOwnerId(userId, afterStart, afterId, pageable);
                 break;
             case FUTURE:
-                bookingsList = bookingRepository.findAllFutureBookingByOwnerId(userId);
+                bookingsList = bookingRepository.findAllFutureBookingByOwnerId(userId, afterStart, afterId, pageable);
                 break;
             case WAITING:
-                bookingsList = bookingRepository.findAllByOwnerIdAndStatus(userId, Statuses.WAITING);
+                bookingsList = bookingRepository.findAllByOwnerIdAndStatus(userId, Statuses.WAITING, afterStart, afterId, pageable);
                 break;
             case REJECTED:
-                bookingsList = bookingRepository.findAllByOwnerIdAndStatus(userId, Statuses.REJECTED);
+                bookingsList = bookingRepository.findAllByOwnerIdAndStatus(userId, Statuses.REJECTED, afterStart, afterId, pageable);
                 break;
         }
         return bookingsList.stream()
                 .map(BookingMapper.INSTANCE::mapToBookingDto)
-                .sorted(Comparator.comparing(BookingDto::getStart))
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public OwnerBookingSummaryDto getOwnerSummary(Long userId) {
+        log.info("GET /bookings/owner/summary - получение сводки бронирований вещей текущего пользователя");
+        findUserById(userId);
+        return ownerBookingCounters.findSummary(userId)
+                .orElseGet(() -> OwnerBookingCounters.summarize(bookingRepository.findSummaryEntries(userId),
+                        LocalDateTime.now()));
+    }
+
+    @Override
+    @Transactional
     public BookingDto updateBooking(Long userId, UpdateBookingRequest request) {
         log.info("PUT /bookings - обновление бронирования");
         if (request.getId() == null) {
@@ -161,22 +322,31 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Просмотр возможен либо автором бронирования, либо владельцем вещи");
         }
         BookingMapper.INSTANCE.updateBookingFromRequest(request, booking);
+        booking.setPhase(Phases.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+        if (booking.getStatus() == Statuses.APPROVED) {
+            itemRepository.findByIdForApproval(booking.getItem().getId());
+            checkNotOverlapping(booking.getItem().getId(), booking.getStart(), booking.getEnd(), booking.getId());
+        }
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.saved(booking));
         return BookingMapper.INSTANCE.mapToBookingDto(booking);
     }
 
     @Override
+    @Transactional
     public void deleteBooking(Long bookingId) {
         log.info("DELETE /bookings/{booking-id} - удаление бронирования");
         Booking booking = findBookingById(bookingId);
         bookingRepository.delete(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(booking));
     }
 
     @Override
+    @Transactional
     public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
         log.info("PATCH /bookings/{booking-id}?approved={approved} - подтверждение или отклонение запроса на бронирование");
         Booking booking = findBookingById(bookingId);
-        Item item = findItemById(booking.getItem().getId());
+        Item item = booking.getItem();
 
         if (!item.getOwner().getId().equals(userId)) {
             throw new NotItemOwnerException("Менять статус вещи может только её владелец");
@@ -186,7 +356,13 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Вещь уже забронирована");
         }
 
+        if (approved) {
+            itemRepository.findByIdForApproval(item.getId());
+            checkNotOverlapping(item.getId(), booking.getStart(), booking.getEnd(), booking.getId());
+        }
+
         booking.setStatus(approved ? Statuses.APPROVED : Statuses.REJECTED);
+        eventPublisher.publishEvent(BookingChangedEvent.saved(booking));
         return BookingMapper.INSTANCE.mapToBookingDto(booking);
     }
 }
@@ -0,0 +1,264 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
+import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.booking.summary.BookingSummaryEntry;
+import ru.practicum.shareit.booking.summary.OwnerBookingCounters;
+import ru.practicum.shareit.enums.Phases;
+import ru.practicum.shareit.enums.States;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.NotItemOwnerException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Бронирования в хранилище в памяти (профиль in-memory). Изменения бронирования вместе с проверкой пересечения
+ * выполняются под блокировкой вещи из фиксированного набора, поэтому две заявки на одну вещь
+ * не будут подтверждены одновременно. Версии не ведутся, ETag не выдаётся.
+ */
+@Slf4j
+@Service
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryBookingService implements BookingService {
+
+    private static final int MAX_BATCH_SIZE = 1_000;
+    private static final int ITEM_LOCK_STRIPES = 64;
+    private static final Comparator<Booking> BY_START = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId);
+
+    private final BookingStorage bookingStorage;
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final Object[] itemLocks = Stream.generate(Object::new).limit(ITEM_LOCK_STRIPES).toArray();
+
+    @Override
+    public BookingDto createBooking(Long userId, NewBookingRequest request) {
+        log.info("POST /bookings - создание брони");
+        return create(userId, request);
+    }
+
+    @Override
+    public List<BookingBatchResult> createBookings(Long userId, List<NewBookingRequest> requests) {
+        log.info("POST /bookings/batch - пакетное создание бронирований");
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format("За один запрос можно создать не более %d бронирований", MAX_BATCH_SIZE));
+        }
+        userStorage.getUserById(userId);
+        List<BookingBatchResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BookingBatchResult result = new BookingBatchResult(i, null, null);
+            try {
+                if (requests.get(i) == null) {
+                    throw new ValidationException("Бронирование не указано");
+                }
+                result.setBooking(create(userId, requests.get(i)));
+            } catch (NotFoundException | ValidationException | ConflictException e) {
+                result.setError(e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    @Override
+    public BookingDto findBooking(Long bookingId, Long userId) {
+        log.info("GET /bookings/{booking-id} - получение бронирования");
+        Booking booking = bookingStorage.getBookingById(bookingId);
+        if (!booking.getBooker().getId().equals(userId) && !ownerIdOf(booking).equals(userId)) {
+            throw new ValidationException("Просмотр возможен либо автором бронирования, либо владельцем вещи");
+        }
+        return toDto(booking);
+    }
+
+    @Override
+    public String getBookingETag(Long bookingId, Long userId) {
+        return null;
+    }
+
+    @Override
+    public List<BookingDto> findAllBookingsByUser(Long userId, String state, Long after, Integer from, Integer size) {
+        log.info("GET /bookings?state={state} - получение списка всех бронирований текущего пользователя");
+        States currentState = States.valueOf(state);
+        userStorage.getUserById(userId);
+        return page(bookingStorage.getBookingsByBookerId(userId).stream(), currentState, after, from, size);
+    }
+
+    @Override
+    public List<BookingDto> findAllBookingsByOwnerItems(Long userId, String state, Long after, Integer from, Integer size) {
+        log.info("GET /bookings/owner?state={state} - получение списка бронирований для всех вещей текущего пользователя");
+        States currentState = States.valueOf(state);
+        userStorage.getUserById(userId);
+        return page(findOwnerBookings(userId), currentState, after, from, size);
+    }
+
+    @Override
+    public OwnerBookingSummaryDto getOwnerSummary(Long userId) {
+        log.info("GET /bookings/owner/summary - получение сводки бронирований вещей текущего пользователя");
+        userStorage.getUserById(userId);
+        List<BookingSummaryEntry> entries = findOwnerBookings(userId)
+                .map(booking -> new BookingSummaryEntry(booking.getId(), userId, booking.getItem().getId(),
+                        booking.getStart(), booking.getEnd(), booking.getStatus()))
+                .toList();
+        return OwnerBookingCounters.summarize(entries, LocalDateTime.now());
+    }
+
+    @Override
+    public BookingDto updateBooking(Long userId, UpdateBookingRequest request) {
+        log.info("PUT /bookings - обновление бронирования");
+        if (request.getId() == null) {
+            throw new ValidationException("id бронирования должен быть указан");
+        }
+        userStorage.getUserById(userId);
+        Long itemId = bookingStorage.getBookingById(request.getId()).getItem().getId();
+        synchronized (lockOf(itemId)) {
+            Booking booking = bookingStorage.getBookingById(request.getId());
+            if (!booking.getBooker().getId().equals(userId) && !ownerIdOf(booking).equals(userId)) {
+                throw new ValidationException("Просмотр возможен либо автором бронирования, либо владельцем вещи");
+            }
+            BookingMapper.INSTANCE.updateBookingFromRequest(request, booking);
+            if (booking.getStatus() == Statuses.APPROVED) {
+                checkNotOverlapping(booking);
+            }
+            return toDto(bookingStorage.updateBooking(booking));
+        }
+    }
+
+    @Override
+    public void deleteBooking(Long bookingId) {
+        log.info("DELETE /bookings/{booking-id} - удаление бронирования");
+        bookingStorage.getBookingById(bookingId);
+        bookingStorage.deleteBooking(bookingId);
+    }
+
+    @Override
+    public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
+        log.info("PATCH /bookings/{booking-id}?approved={approved} - подтверждение или отклонение запроса на бронирование");
+        Long itemId = bookingStorage.getBookingById(bookingId).getItem().getId();
+        synchronized (lockOf(itemId)) {
+            Booking booking = bookingStorage.getBookingById(bookingId);
+            if (!ownerIdOf(booking).equals(userId)) {
+                throw new NotItemOwnerException("Менять статус вещи может только её владелец");
+            }
+            if (!booking.getStatus().equals(Statuses.WAITING)) {
+                throw new ValidationException("Вещь уже забронирована");
+            }
+            if (approved) {
+                checkNotOverlapping(booking);
+            }
+            booking.setStatus(approved ? Statuses.APPROVED : Statuses.REJECTED);
+            return toDto(bookingStorage.updateBooking(booking));
+        }
+    }
+
+    private BookingDto create(Long userId, NewBookingRequest request) {
+        User user = userStorage.getUserById(userId);
+        if (request.getItemId() == null) {
+            throw new NotFoundException("Вещь не указана");
+        }
+        Item item = itemStorage.getItemById(request.getItemId());
+        if (!item.getAvailable()) {
+            throw new ValidationException("Вещь не доступна для бронирования!");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new ValidationException("Владелец вещи не может забронировать свою же вещь");
+        }
+        if (request.getStart() == null || request.getEnd() == null || !request.getStart().isBefore(request.getEnd())) {
+            throw new ValidationException("Дата начала бронирования должна быть раньше даты окончания");
+        }
+        Booking booking = BookingMapper.INSTANCE.mapToBooking(request, user, item);
+        checkNotOverlapping(booking);
+        return toDto(bookingStorage.createBooking(booking));
+    }
+
+    private void checkNotOverlapping(Booking booking) {
+        boolean overlapping = bookingStorage.getBookingsByItemId(booking.getItem().getId()).stream()
+                .anyMatch(other -> other.getStatus() == Statuses.APPROVED && !other.getId().equals(booking.getId())
+                        && other.getStart().isBefore(booking.getEnd()) && other.getEnd().isAfter(booking.getStart()));
+        if (overlapping) {
+            throw new ConflictException("Вещь уже забронирована на эти даты");
+        }
+    }
+
+    private Stream<Booking> findOwnerBookings(Long ownerId) {
+        return itemStorage.getItemsByOwnerId(ownerId).stream()
+                .map(Item::getId)
+                .map(bookingStorage::getBookingsByItemId)
+                .flatMap(Collection::stream);
+    }
+
+    /**
+     * Та же выдача, что и у запросов к базе: по дате начала и id, после бронирования after, страница from/size.
+     */
+    private List<BookingDto> page(Stream<Booking> bookings, States state, Long after, Integer from, Integer size) {
+        if (size == null && from != null && from > 0) {
+            throw new ValidationException("Параметр from указывается вместе с size");
+        }
+        if (size != null && (from == null || from < 0 || size <= 0)) {
+            throw new ValidationException("Параметр from должен быть неотрицательным, а size - положительным");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Stream<Booking> selected = bookings
+                .filter(booking -> matches(booking, state, now))
+                .sorted(BY_START);
+        if (after != null) {
+            Booking cursor = bookingStorage.getBookingById(after);
+            selected = selected.filter(booking -> BY_START.compare(booking, cursor) > 0);
+        }
+        if (size != null) {
+            selected = selected.skip((long) from / size * size).limit(size);
+        }
+        return selected.map(this::toDto).toList();
+    }
+
+    private static boolean matches(Booking booking, States state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> true;
+            case CURRENT -> Phases.at(booking.getStart(), booking.getEnd(), now) == Phases.CURRENT;
+            case PAST -> Phases.at(booking.getStart(), booking.getEnd(), now) == Phases.PAST;
+            case FUTURE -> Phases.at(booking.getStart(), booking.getEnd(), now) == Phases.FUTURE;
+            case WAITING -> booking.getStatus() == Statuses.WAITING;
+            case REJECTED -> booking.getStatus() == Statuses.REJECTED;
+        };
+    }
+
+    private Long ownerIdOf(Booking booking) {
+        return itemStorage.getItemById(booking.getItem().getId()).getOwner().getId();
+    }
+
+    private Object lockOf(Long itemId) {
+        return itemLocks[Math.floorMod(itemId.hashCode(), ITEM_LOCK_STRIPES)];
+    }
+
+    /**
+     * Бронирование хранит вещь и арендатора на момент создания, поэтому в ответ подставляются текущие.
+     */
+    private BookingDto toDto(Booking booking) {
+        booking.setItem(itemStorage.getItemById(booking.getItem().getId()));
+        booking.setBooker(userStorage.getUserById(booking.getBooker().getId()));
+        booking.setPhase(Phases.at(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+        return BookingMapper.INSTANCE.mapToBookingDto(booking);
+    }
+}
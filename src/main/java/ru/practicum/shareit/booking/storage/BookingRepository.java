@@ -1,62 +1,181 @@
 package ru.practicum.shareit.booking.storage;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingExportRow;
+import ru.practicum.shareit.booking.dto.BookingVersion;
+import ru.practicum.shareit.booking.dto.ItemBookingDates;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.phase.PhaseBoundary;
+import ru.practicum.shareit.booking.summary.BookingSummaryEntry;
+import ru.practicum.shareit.booking.summary.ItemTerminalCounts;
 import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.availability.BookedInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByBookerId(Long bookerId);
-
-    @Query("select b from Booking as b where b.item.owner.id = :ownerId")
-    List<Booking> findAllByOwnerId(@Param("ownerId") Long ownerId);
-
-    List<Booking> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Statuses status);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and current_timestamp between b.start and b.end")
-    List<Booking> findAllCurrentBookingByBookerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and current_timestamp > b.end")
-    List<Booking> findAllPastBookingByBookerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and current_timestamp < b.start")
-    List<Booking> findAllFutureBookingByBookerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b from Booking b where b.item.owner.id = :bookerId and b.status = :status")
-    List<Booking> findAllByOwnerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status")  Statuses status);
-
-    @Query("select b from Booking b where b.item.owner.id = :bookerId and current_timestamp between b.start and b.end")
-    List<Booking> findAllCurrentBookingByOwnerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b from Booking b where b.item.owner.id = :bookerId and current_timestamp > b.end")
-    List<Booking> findAllPastBookingByOwnerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b from Booking b where b.item.owner.id = :bookerId and current_timestamp < b.start")
-    List<Booking> findAllFutureBookingByOwnerId(@Param("bookerId") Long bookerId);
-
-    @Query("select b.end from Booking b where b.item.id = :itemId and b.status = :status and b.end < :datetime order by b.end desc")
-    List<LocalDateTime> findPastBookingEndByItemId(@Param("itemId") Long itemId, @Param("status") Statuses status,
-                                                   @Param("datetime") LocalDateTime datetime);
-
-    @Query("select b.start from Booking b where b.item.id = :itemId and b.status = :status " +
-            "and b.start >= :datetime order by b.start")
-    List<LocalDateTime> findFutureBookingEndByItemId(@Param("itemId") Long itemId, @Param("status") Statuses status,
-                                                     @Param("datetime") LocalDateTime datetime);
-
-    @Query("select b from Booking b where b.item.id in (:itemIds) and b.status = :status " +
-            "and b.end < :datetime order by b.end desc")
-    List<Booking> findPastBookingEndDatesForItems(@Param("itemIds") List<Long> itemIds, @Param("status") Statuses status,
-                                                  @Param("datetime") LocalDateTime datetime);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long bookingId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = :bookerId " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllByBookerId(@Param("bookerId") Long bookerId,
+                                   @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllByOwnerId(@Param("ownerId") Long ownerId,
+                                  @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Вся история бронирований вещей владельца курсором: строки читаются из базы порциями по fetch size
+     * и не попадают в контекст персистентности. Поток нужно закрыть внутри транзакции.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingExportRow(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join b.booker u where i.owner.id = :ownerId order by b.start, b.id")
+    Stream<BookingExportRow> streamAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.status = :status " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Statuses status,
+                                            @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.phase = ru.practicum.shareit.enums.Phases.CURRENT " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllCurrentBookingByBookerId(@Param("bookerId") Long bookerId,
+                                                 @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.phase = ru.practicum.shareit.enums.Phases.PAST " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllPastBookingByBookerId(@Param("bookerId") Long bookerId,
+                                              @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = :bookerId and b.phase = ru.practicum.shareit.enums.Phases.FUTURE " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllFutureBookingByBookerId(@Param("bookerId") Long bookerId,
+                                                @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId and b.status = :status " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllByOwnerIdAndStatus(@Param("ownerId") Long ownerId, @Param("status") Statuses status,
+                                           @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId and b.phase = ru.practicum.shareit.enums.Phases.CURRENT " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllCurrentBookingByOwnerId(@Param("ownerId") Long ownerId,
+                                                @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId and b.phase = ru.practicum.shareit.enums.Phases.PAST " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllPastBookingByOwnerId(@Param("ownerId") Long ownerId,
+                                             @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i join fetch b.booker where i.owner.id = :ownerId and b.phase = ru.practicum.shareit.enums.Phases.FUTURE " +
+            "and (b.start > :afterStart or (b.start = :afterStart and b.id > :afterId)) order by b.start, b.id")
+    List<Booking> findAllFutureBookingByOwnerId(@Param("ownerId") Long ownerId,
+                                               @Param("afterStart") LocalDateTime afterStart, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingVersion(b.id, b.version, b.booker.id, i.owner.id, i.version) " +
+            "from Booking b join b.item i where b.id = :bookingId")
+    Optional<BookingVersion> findVersionById(@Param("bookingId") Long bookingId);
+
+    @Query("select b.start from Booking b where b.id = :bookingId")
+    Optional<LocalDateTime> findStartById(@Param("bookingId") Long bookingId);
+
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDates(b.item.id, " +
+            "max(case when b.end < :datetime then b.end end), " +
+            "min(case when b.start >= :datetime then b.start end)) " +
+            "from Booking b where b.item.id in (:itemIds) and b.status = :status group by b.item.id order by b.item.id")
+    List<ItemBookingDates> findItemBookingDates(@Param("itemIds") List<Long> itemIds, @Param("status") Statuses status,
+                                                @Param("datetime") LocalDateTime datetime);
+
+    @Query("select count(b) > 0 from Booking b where b.item.id = :itemId and b.status = :status " +
+            "and b.id <> :bookingId and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId, @Param("status") Statuses status,
+                              @Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                              @Param("bookingId") Long bookingId);
 
     @Query("select b from Booking b where b.item.id in (:itemIds) and b.status = :status " +
-            "and b.start >= :datetime order by b.start")
-    List<Booking> findFutureBookingStartDatesForItems(@Param("itemIds") List<Long> itemIds, @Param("status") Statuses status,
-                                                      @Param("datetime") LocalDateTime datetime);
+            "and b.start < :to and b.end > :from")
+    List<Booking> findAllIntersecting(@Param("itemIds") Collection<Long> itemIds, @Param("status") Statuses status,
+                                      @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.item.availability.BookedInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.status = :status and b.end is not null and b.id > :afterId order by b.id")
+    List<BookedInterval> findBookedIntervals(@Param("status") Statuses status, @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.availability.BookedInterval(b.id, b.item.id, b.start, b.end) " +
+            "from Booking b where b.item.id = :itemId and b.status = :status " +
+            "and b.start < :to and b.end > :from order by b.start, b.id")
+    List<BookedInterval> findBookedIntervals(@Param("itemId") Long itemId, @Param("status") Statuses status,
+                                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.summary.BookingSummaryEntry(b.id, i.owner.id, i.id, b.start, b.end, b.status) " +
+            "from Booking b join b.item i where b.end is not null and b.id > :afterId order by b.id")
+    List<BookingSummaryEntry> findSummaryEntries(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.summary.BookingSummaryEntry(b.id, i.owner.id, i.id, b.start, b.end, b.status) " +
+            "from Booking b join b.item i where i.owner.id = :ownerId and b.end is not null")
+    List<BookingSummaryEntry> findSummaryEntries(@Param("ownerId") Long ownerId);
+
+    @Query("select new ru.practicum.shareit.booking.summary.ItemTerminalCounts(count(b), " +
+            "count(case when b.status = ru.practicum.shareit.enums.Statuses.REJECTED then 1 end)) " +
+            "from Booking b where b.item.id = :itemId and b.status <> ru.practicum.shareit.enums.Statuses.WAITING " +
+            "and b.end < :now")
+    ItemTerminalCounts countTerminal(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.phase.PhaseBoundary(b.start, b.id, ru.practicum.shareit.enums.Phases.CURRENT) " +
+            "from Booking b where b.phase = ru.practicum.shareit.enums.Phases.FUTURE and b.start > :from and b.start <= :to")
+    List<PhaseBoundary> findStartBoundaries(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.phase.PhaseBoundary(b.end, b.id, ru.practicum.shareit.enums.Phases.PAST) " +
+            "from Booking b where b.phase in (ru.practicum.shareit.enums.Phases.FUTURE, ru.practicum.shareit.enums.Phases.CURRENT) " +
+            "and b.end > :from and b.end <= :to")
+    List<PhaseBoundary> findEndBoundaries(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("update Booking b set b.phase = ru.practicum.shareit.enums.Phases.CURRENT " +
+            "where b.id in (:bookingIds) and b.phase = ru.practicum.shareit.enums.Phases.FUTURE " +
+            "and b.start <= :now and b.end >= :now")
+    int markCurrent(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Booking b set b.phase = ru.practicum.shareit.enums.Phases.PAST " +
+            "where b.id in (:bookingIds) and b.phase <> ru.practicum.shareit.enums.Phases.PAST and b.end < :now")
+    int markPast(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Booking b set b.phase = ru.practicum.shareit.enums.Phases.PAST " +
+            "where b.phase in (ru.practicum.shareit.enums.Phases.FUTURE, ru.practicum.shareit.enums.Phases.CURRENT) " +
+            "and b.end < :now")
+    int markAllPast(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Booking b set b.phase = ru.practicum.shareit.enums.Phases.CURRENT " +
+            "where b.phase = ru.practicum.shareit.enums.Phases.FUTURE and b.start <= :now")
+    int markAllCurrent(@Param("now") LocalDateTime now);
 
     Boolean existsByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime datetime);
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.Collection;
+
+public interface BookingStorage {
+
+    Booking createBooking(Booking booking);
+
+    Booking updateBooking(Booking booking);
+
+    void deleteBooking(Long bookingId);
+
+    Booking getBookingById(Long bookingId);
+
+    Collection<Booking> getBookingsByBookerId(Long bookerId);
+
+    Collection<Booking> getBookingsByItemId(Long itemId);
+
+    void deleteBookingsByItemId(Long itemId);
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище бронирований в памяти (профиль in-memory). Бронирование и его записи в индексах по арендатору
+ * и вещи меняются внутри compute по id бронирования, как в InMemoryItemStorage; хранятся и возвращаются копии.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryBookingStorage implements BookingStorage {
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bookingIdsByBookerId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bookingIdsByItemId = new ConcurrentHashMap<>();
+    private final AtomicLong lastBookingId = new AtomicLong();
+
+    @Override
+    public Booking createBooking(Booking booking) {
+        Booking created = copy(booking);
+        created.setId(lastBookingId.incrementAndGet());
+        return updateBooking(created);
+    }
+
+    @Override
+    public Booking updateBooking(Booking booking) {
+        Booking stored = copy(booking);
+        bookings.compute(stored.getId(), (bookingId, previous) -> {
+            unindex(bookingId, previous);
+            index(stored);
+            return stored;
+        });
+        return copy(stored);
+    }
+
+    @Override
+    public void deleteBooking(Long bookingId) {
+        bookings.computeIfPresent(bookingId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    @Override
+    public Booking getBookingById(Long bookingId) {
+        return Optional.ofNullable(bookings.get(bookingId))
+                .map(InMemoryBookingStorage::copy)
+                .orElseThrow(() -> new NotFoundException(String.format("Бронирование c id %d не найдено", bookingId)));
+    }
+
+    @Override
+    public Collection<Booking> getBookingsByBookerId(Long bookerId) {
+        return find(bookingIdsByBookerId.getOrDefault(bookerId, Set.of()));
+    }
+
+    @Override
+    public Collection<Booking> getBookingsByItemId(Long itemId) {
+        return find(bookingIdsByItemId.getOrDefault(itemId, Set.of()));
+    }
+
+    @Override
+    public void deleteBookingsByItemId(Long itemId) {
+        Set.copyOf(bookingIdsByItemId.getOrDefault(itemId, Set.of())).forEach(this::deleteBooking);
+    }
+
+    private Collection<Booking> find(Set<Long> bookingIds) {
+        return bookingIds.stream()
+                .sorted()
+                .map(bookings::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryBookingStorage::copy)
+                .toList();
+    }
+
+    private void index(Booking booking) {
+        bookingIdsByBookerId.compute(booking.getBooker().getId(), (key, ids) -> addId(ids, booking.getId()));
+        bookingIdsByItemId.compute(booking.getItem().getId(), (key, ids) -> addId(ids, booking.getId()));
+    }
+
+    private void unindex(Long bookingId, Booking previous) {
+        if (previous == null) {
+            return;
+        }
+        bookingIdsByBookerId.computeIfPresent(previous.getBooker().getId(), (key, ids) -> removeId(ids, bookingId));
+        bookingIdsByItemId.computeIfPresent(previous.getItem().getId(), (key, ids) -> removeId(ids, bookingId));
+    }
+
+    private static Set<Long> addId(Set<Long> ids, Long id) {
+        Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+        result.add(id);
+        return result;
+    }
+
+    private static Set<Long> removeId(Set<Long> ids, Long id) {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+    }
+
+    private static Booking copy(Booking booking) {
+        Booking copy = new Booking();
+        copy.setId(booking.getId());
+        copy.setStart(booking.getStart());
+        copy.setEnd(booking.getEnd());
+        copy.setItem(booking.getItem());
+        copy.setBooker(booking.getBooker());
+        copy.setStatus(booking.getStatus());
+        copy.setPhase(booking.getPhase());
+        copy.setVersion(booking.getVersion());
+        return copy;
+    }
+}
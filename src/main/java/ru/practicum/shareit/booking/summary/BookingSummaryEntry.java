@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.summary;
+
+import ru.practicum.shareit.enums.Statuses;
+
+import java.time.LocalDateTime;
+
+public record BookingSummaryEntry(Long bookingId, Long ownerId, Long itemId, LocalDateTime start, LocalDateTime end,
+                                  Statuses status) {
+}
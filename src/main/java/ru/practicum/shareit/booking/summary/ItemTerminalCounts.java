@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.summary;
+
+/**
+ * Завершённые бронирования вещи: прошедшие и не ожидающие подтверждения, из них отклонённые.
+ */
+public record ItemTerminalCounts(Long past, Long rejected) {
+}
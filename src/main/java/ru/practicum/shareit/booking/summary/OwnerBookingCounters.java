@@ -0,0 +1,310 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.OwnerBookingSummaryDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Счётчики бронирований по вещам каждого владельца. Статусы обновляются по событиям бронирований,
+ * а переходы FUTURE -> CURRENT -> PAST выполняются при чтении сводки по очередям, упорядоченным по датам.
+ * Отдельно хранятся только бронирования, которые ещё могут сменить фазу или статус: ожидающие подтверждения,
+ * будущие и текущие. Завершённые учитываются счётчиками по вещам.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OwnerBookingCounters {
+
+    private static final int BOOTSTRAP_BATCH_SIZE = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Buckets> owners = new ConcurrentHashMap<>();
+    private final Map<Long, Long> itemOwners = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Построение сводки бронирований владельцев");
+        ready = false;
+        owners.clear();
+        itemOwners.clear();
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        long loaded = 0;
+        List<BookingSummaryEntry> batch;
+        do {
+            batch = bookingRepository.findSummaryEntries(lastId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+            for (BookingSummaryEntry entry : batch) {
+                Buckets buckets = bucketsOf(entry.ownerId(), entry.itemId());
+                synchronized (buckets) {
+                    buckets.add(entry, now);
+                }
+                lastId = entry.bookingId();
+            }
+            loaded += batch.size();
+        } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        ready = true;
+        log.info("Сводка бронирований владельцев построена, бронирований: {}", loaded);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingSummaryEntry entry = event.deleted() || event.end() == null ? null
+                : new BookingSummaryEntry(event.bookingId(), event.ownerId(), event.itemId(), event.start(), event.end(),
+                event.status());
+        Buckets buckets = bucketsOf(event.ownerId(), event.itemId());
+        LocalDateTime now;
+        ItemBookings item;
+        long version;
+        synchronized (buckets) {
+            now = LocalDateTime.now();
+            buckets.advance(now);
+            boolean removed = buckets.remove(event.bookingId());
+            boolean terminal = entry != null && Buckets.isTerminal(entry, now);
+            if (entry != null && !terminal) {
+                buckets.add(entry, now);
+            }
+            if ((removed || event.created()) && !terminal) {
+                return;
+            }
+            // прежнее состояние завершённого бронирования не хранится, поэтому счётчики завершённых бронирований
+            // вещи целиком берутся из базы, где изменение уже зафиксировано
+            item = buckets.item(event.itemId());
+            version = item.version;
+        }
+        // запрос выполняется вне блокировки, а результат применяется, только если с тех пор вещь не менялась:
+        // иначе он мог не учесть бронирование, завершённое при чтении сводки, или учесть его дважды
+        while (true) {
+            ItemTerminalCounts counts = bookingRepository.countTerminal(event.itemId(), now);
+            synchronized (buckets) {
+                if (buckets.items.get(event.itemId()) == item && item.version == version) {
+                    buckets.setTerminal(event.itemId(), counts);
+                    return;
+                }
+                now = LocalDateTime.now();
+                buckets.advance(now);
+                item = buckets.item(event.itemId());
+                version = item.version;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!event.deleted()) {
+            return;
+        }
+        // бронирования удалённой вещи удаляются каскадом в базе данных
+        Long ownerId = itemOwners.remove(event.itemId());
+        Buckets buckets = ownerId == null ? null : owners.get(ownerId);
+        if (buckets == null) {
+            return;
+        }
+        synchronized (buckets) {
+            buckets.removeItem(event.itemId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        Buckets buckets = owners.remove(event.userId());
+        if (buckets == null) {
+            return;
+        }
+        synchronized (buckets) {
+            buckets.items.keySet().forEach(itemOwners::remove);
+        }
+    }
+
+    /**
+     * Сводка по бронированиям вещей владельца или пустой Optional, если сводка ещё не построена.
+     */
+    public Optional<OwnerBookingSummaryDto> findSummary(Long ownerId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Buckets buckets = owners.get(ownerId);
+        if (buckets == null) {
+            return Optional.of(new Buckets().snapshot(LocalDateTime.now()));
+        }
+        synchronized (buckets) {
+            return Optional.of(buckets.snapshot(LocalDateTime.now()));
+        }
+    }
+
+    public static OwnerBookingSummaryDto summarize(List<BookingSummaryEntry> entries, LocalDateTime now) {
+        Buckets buckets = new Buckets();
+        entries.forEach(entry -> buckets.add(entry, now));
+        return buckets.snapshot(now);
+    }
+
+    private Buckets bucketsOf(Long ownerId, Long itemId) {
+        itemOwners.put(itemId, ownerId);
+        return owners.computeIfAbsent(ownerId, id -> new Buckets());
+    }
+
+    private static class ItemBookings {
+
+        private final Set<Long> active = new HashSet<>();
+        private long past;
+        private long rejected;
+        private long version;
+    }
+
+    private static class Buckets {
+
+        private final Map<Long, BookingSummaryEntry> active = new HashMap<>();
+        private final Map<Long, ItemBookings> items = new HashMap<>();
+        private final TreeSet<BookingSummaryEntry> future = new TreeSet<>(
+                Comparator.comparing(BookingSummaryEntry::start).thenComparing(BookingSummaryEntry::bookingId));
+        private final TreeSet<BookingSummaryEntry> current = new TreeSet<>(
+                Comparator.comparing(BookingSummaryEntry::end).thenComparing(BookingSummaryEntry::bookingId));
+        private final TreeSet<Long> waiting = new TreeSet<>();
+        private final Set<Long> pastWaiting = new HashSet<>();
+        private long activeRejected;
+        private long terminalPast;
+        private long terminalRejected;
+
+        static boolean isTerminal(BookingSummaryEntry entry, LocalDateTime now) {
+            return entry.status() != Statuses.WAITING && now.isAfter(entry.end());
+        }
+
+        ItemBookings item(Long itemId) {
+            return items.computeIfAbsent(itemId, id -> new ItemBookings());
+        }
+
+        void add(BookingSummaryEntry entry, LocalDateTime now) {
+            ItemBookings item = item(entry.itemId());
+            item.version++;
+            if (isTerminal(entry, now)) {
+                addTerminal(item, entry);
+                return;
+            }
+            if (active.putIfAbsent(entry.bookingId(), entry) != null) {
+                return;
+            }
+            item.active.add(entry.bookingId());
+            if (entry.status() == Statuses.WAITING) {
+                waiting.add(entry.bookingId());
+            } else if (entry.status() == Statuses.REJECTED) {
+                activeRejected++;
+            }
+            if (now.isBefore(entry.start())) {
+                future.add(entry);
+            } else if (now.isAfter(entry.end())) {
+                pastWaiting.add(entry.bookingId());
+            } else {
+                current.add(entry);
+            }
+        }
+
+        /**
+         * Убирает активное бронирование, false - если такого нет: оно завершено или неизвестно.
+         */
+        boolean remove(Long bookingId) {
+            BookingSummaryEntry entry = active.remove(bookingId);
+            if (entry == null) {
+                return false;
+            }
+            ItemBookings item = items.get(entry.itemId());
+            if (item != null) {
+                item.active.remove(bookingId);
+                item.version++;
+            }
+            if (entry.status() == Statuses.WAITING) {
+                waiting.remove(bookingId);
+            } else if (entry.status() == Statuses.REJECTED) {
+                activeRejected--;
+            }
+            if (!future.remove(entry) && !current.remove(entry)) {
+                pastWaiting.remove(bookingId);
+            }
+            return true;
+        }
+
+        void removeItem(Long itemId) {
+            ItemBookings item = items.remove(itemId);
+            if (item == null) {
+                return;
+            }
+            List.copyOf(item.active).forEach(this::remove);
+            terminalPast -= item.past;
+            terminalRejected -= item.rejected;
+        }
+
+        void setTerminal(Long itemId, ItemTerminalCounts counts) {
+            ItemBookings item = item(itemId);
+            item.version++;
+            terminalPast += counts.past() - item.past;
+            terminalRejected += counts.rejected() - item.rejected;
+            item.past = counts.past();
+            item.rejected = counts.rejected();
+        }
+
+        void advance(LocalDateTime now) {
+            while (!future.isEmpty() && !future.first().start().isAfter(now)) {
+                BookingSummaryEntry started = future.pollFirst();
+                if (now.isAfter(started.end())) {
+                    finish(started);
+                } else {
+                    current.add(started);
+                }
+            }
+            while (!current.isEmpty() && current.first().end().isBefore(now)) {
+                finish(current.pollFirst());
+            }
+        }
+
+        OwnerBookingSummaryDto snapshot(LocalDateTime now) {
+            advance(now);
+            return new OwnerBookingSummaryDto(active.size() + terminalPast, waiting.size(), current.size(),
+                    future.size(), pastWaiting.size() + terminalPast, activeRejected + terminalRejected,
+                    List.copyOf(waiting));
+        }
+
+        private void finish(BookingSummaryEntry entry) {
+            if (entry.status() == Statuses.WAITING) {
+                pastWaiting.add(entry.bookingId());
+                return;
+            }
+            active.remove(entry.bookingId());
+            ItemBookings item = items.get(entry.itemId());
+            item.active.remove(entry.bookingId());
+            item.version++;
+            if (entry.status() == Statuses.REJECTED) {
+                activeRejected--;
+            }
+            addTerminal(item, entry);
+        }
+
+        private void addTerminal(ItemBookings item, BookingSummaryEntry entry) {
+            item.past++;
+            terminalPast++;
+            if (entry.status() == Statuses.REJECTED) {
+                item.rejected++;
+                terminalRejected++;
+            }
+        }
+    }
+}
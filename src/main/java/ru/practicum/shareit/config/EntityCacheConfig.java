@@ -0,0 +1,54 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate для пользователей и вещей на ограниченных по размеру кэшах Caffeine.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${shareit.cache.user.maximum-size:10000}") long userMaximumSize,
+                                           @Value("${shareit.cache.item.maximum-size:50000}") long itemMaximumSize,
+                                           @Value("${shareit.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        // Собственный провайдер, чтобы менеджер не делился между контекстами в одной JVM
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        cacheManager.createCache(User.class.getName(), regionConfiguration(userMaximumSize, expireAfterWrite));
+        cacheManager.createCache(Item.class.getName(), regionConfiguration(itemMaximumSize, expireAfterWrite));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheManagerCustomizer(CacheManager entityCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> entityCacheManager.getCacheNames().forEach(cacheName ->
+                JCacheMetrics.monitor(registry, entityCacheManager.getCache(cacheName)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Вещи пользователя удаляются каскадом в базе данных в обход Hibernate,
+     * поэтому после удаления пользователя регион вещей сбрасывается целиком.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        log.debug("Сброс кэша вещей после удаления пользователя {}", event.userId());
+        entityManagerFactory.getCache().evict(Item.class);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Если все миграции уже применены, migrate не вызывается и блокировка истории не захватывается,
+     * но контрольные суммы скриптов проверяются: изменённая применённая миграция должна остановить запуск.
+     */
+    @Bean
+    public FlywayMigrationStrategy skipWhenUpToDateMigrationStrategy() {
+        return flyway -> {
+            long startedAt = System.nanoTime();
+            MigrationInfoService info = flyway.info();
+            int pending = info.pending().length;
+            if (pending == 0 && info.current() != null) {
+                flyway.validate();
+                log.info("Схема базы данных актуальна, версия {}, проверка заняла {} мс",
+                        info.current().getVersion(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+                return;
+            }
+            flyway.migrate();
+            log.info("Применено миграций схемы базы данных: {} за {} мс",
+                    pending, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Метрики уровня данных: счётчик JDBC-запросов по методам репозиториев.
+ * Время методов сервисов снимается через {@code @Timed}, время методов репозиториев - штатной метрикой
+ * spring.data.repository.invocations.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer repositoryStatementCounterCustomizer(MeterRegistry meterRegistry) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new RepositoryStatementCounter(meterRegistry, configuredInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR))));
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTracker() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> {
+                                String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    RepositoryStatementCounter.RepositoryMethod outer =
+                                            RepositoryStatementCounter.enter(repository, invocation.getMethod().getName());
+                                    try {
+                                        return invocation.proceed();
+                                    } finally {
+                                        RepositoryStatementCounter.exit(outer);
+                                    }
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Уже настроенный inspector (например, в тестах) вызывается после счётчика
+    private static StatementInspector configuredInspector(Object setting) {
+        if (setting == null || setting instanceof StatementInspector) {
+            return (StatementInspector) setting;
+        }
+        Class<?> inspectorClass = setting instanceof Class<?> type ? type
+                : ClassUtils.resolveClassName(setting.toString(), MetricsConfig.class.getClassLoader());
+        return (StatementInspector) BeanUtils.instantiateClass(inspectorClass);
+    }
+}
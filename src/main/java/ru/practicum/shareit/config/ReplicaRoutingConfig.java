@@ -0,0 +1,105 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Основная база и реплики для чтения. Включается свойством {@code shareit.datasource.replica.enabled},
+ * без него используется обычный источник данных Spring Boot.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             @Value("${shareit.datasource.replica.urls}") List<String> urls,
+                                                             @Value("${shareit.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${shareit.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                             @Value("${shareit.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                                             @Value("${shareit.datasource.replica.read-your-writes-window:PT5S}") Duration readYourWritesWindow,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("Чтение с реплик включено, но shareit.datasource.replica.urls не задан");
+        }
+        log.info("Read-only транзакции направляются на реплики: {}", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesWindow, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Пользователь запроса нужен, чтобы после его записи читать с основной базы,
+     * а границы запроса - чтобы все его чтения шли на одну реплику.
+     */
+    @Bean
+    public OncePerRequestFilter replicaRoutingUserFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                String userId = request.getHeader(X_SHARER_USER_ID);
+                try {
+                    ReplicaRoutingDataSource.startRequest(userId != null && userId.matches("\\d{1,18}")
+                            ? Long.valueOf(userId) : null);
+                    filterChain.doFilter(request, response);
+                } finally {
+                    ReplicaRoutingDataSource.finishRequest();
+                }
+            }
+        };
+    }
+}
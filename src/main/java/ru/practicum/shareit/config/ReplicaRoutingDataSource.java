@@ -0,0 +1,136 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only транзакции уходят на реплики по кругу, остальные - на основную базу.
+ * Все read-only транзакции одного HTTP-запроса читают с одной реплики, иначе, например,
+ * ETag и тело ответа могут прийти с реплик с разным отставанием.
+ * После записи пользователь читает с основной базы в течение {@code read-your-writes-window},
+ * пока реплики догоняют его изменения. Список недавно писавших пользователей, по X-Sharer-User-Id,
+ * хранится в памяти экземпляра: запись через другой экземпляр и запросы без заголовка (POST /users)
+ * не учитываются, поэтому проверки перед записью сервисы выполняют в транзакции
+ * {@link #primaryReadTransactionTemplate}: она читает с основной базы, но пользователя писавшим не делает.
+ * Флаг read-only известен только после начала транзакции, поэтому источник используется
+ * через LazyConnectionDataSourceProxy.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+    public static final String PRIMARY_READ = "primary-read";
+
+    private static final ThreadLocal<RequestRouting> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final List<HikariDataSource> replicas;
+    private final Cache<Long, Boolean> recentWriters;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration readYourWritesWindow,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = List.copyOf(replicas);
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getPoolName(), replica));
+        targets.keySet().forEach(key -> routedConnections.put((String) key, Counter.builder("shareit.datasource.routing")
+                .description("Соединения, выданные транзакциям, по источнику")
+                .tag("target", (String) key)
+                .register(meterRegistry)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Начало HTTP-запроса, userId может быть null.
+     */
+    public static void startRequest(Long userId) {
+        CURRENT_REQUEST.set(new RequestRouting(userId));
+    }
+
+    public static void finishRequest() {
+        CURRENT_REQUEST.remove();
+    }
+
+    /**
+     * Read-only транзакция с основной базы, без реплик.
+     */
+    public static TransactionTemplate primaryReadTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(PRIMARY_READ);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = route();
+        routedConnections.get(key).increment();
+        return key;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    private String route() {
+        RequestRouting request = CURRENT_REQUEST.get();
+        Long userId = request == null ? null : request.userId;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(userId, Boolean.TRUE);
+                    }
+                });
+            }
+            return PRIMARY;
+        }
+        if (PRIMARY_READ.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            return PRIMARY;
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return PRIMARY;
+        }
+        if (request == null) {
+            return nextReplica();
+        }
+        if (request.replica == null) {
+            request.replica = nextReplica();
+        }
+        return request.replica;
+    }
+
+    private String nextReplica() {
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size())).getPoolName();
+    }
+
+    private static final class RequestRouting {
+
+        private final Long userId;
+        private String replica;
+
+        private RequestRouting(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
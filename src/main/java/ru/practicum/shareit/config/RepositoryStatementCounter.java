@@ -0,0 +1,66 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Считает подготовленные Hibernate запросы с тегами метода репозитория и шаблона URI запроса.
+ * Запросы вне методов репозиториев (ленивая загрузка, flush при коммите) попадают под тег none.
+ */
+public class RepositoryStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<RepositoryMethod> CURRENT_METHOD = new ThreadLocal<>();
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final StatementInspector delegate;
+
+    public RepositoryStatementCounter(MeterRegistry meterRegistry, StatementInspector delegate) {
+        this.meterRegistry = meterRegistry;
+        this.delegate = delegate;
+    }
+
+    static RepositoryMethod enter(String repository, String method) {
+        RepositoryMethod outer = CURRENT_METHOD.get();
+        if (outer == null) {
+            CURRENT_METHOD.set(new RepositoryMethod(repository, method));
+        }
+        return outer;
+    }
+
+    static void exit(RepositoryMethod outer) {
+        if (outer == null) {
+            CURRENT_METHOD.remove();
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RepositoryMethod method = CURRENT_METHOD.get();
+        Counter.builder("shareit.jdbc.statements")
+                .description("Подготовленные JDBC-запросы по методам репозиториев")
+                .tag("repository", method == null ? NONE : method.repository())
+                .tag("method", method == null ? NONE : method.method())
+                .tag("uri", currentUri())
+                .register(meterRegistry)
+                .increment();
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NONE : pattern.toString();
+    }
+
+    record RepositoryMethod(String repository, String method) {
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Следит через JFR за виртуальными потоками, которые дольше порога удерживают несущий поток
+ * (synchronized или нативный вызов во время блокировки), и пишет место закрепления в лог.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${shareit.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("shareit.virtual.threads.pinned")
+                .description("Число закреплений виртуальных потоков дольше порога")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Включено отслеживание закрепления виртуальных потоков дольше {} мс", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        log.warn("Виртуальный поток удерживал несущий поток {} мс:\n{}", event.getDuration().toMillis(), topFrames(event));
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "\tстек недоступен";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName() +
+                        ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormats {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+}
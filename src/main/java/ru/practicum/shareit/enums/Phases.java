@@ -0,0 +1,16 @@
+package ru.practicum.shareit.enums;
+
+import java.time.LocalDateTime;
+
+public enum Phases {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static Phases at(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (now.isBefore(start)) {
+            return FUTURE;
+        }
+        return now.isAfter(end) ? PAST : CURRENT;
+    }
+}
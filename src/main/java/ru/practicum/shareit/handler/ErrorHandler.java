@@ -1,9 +1,12 @@
 package ru.practicum.shareit.handler;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 import ru.practicum.shareit.exception.*;
 
 @RestControllerAdvice
@@ -21,6 +24,21 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    /**
+     * Нет обработчика для пути или метода, например эндпоинта, выключенного в профиле in-memory.
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleNoResourceFound(final NoResourceFoundException e) {
+        return new ErrorResponse(String.format("Ресурс %s не найден", e.getResourcePath()));
+    }
+
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    @ResponseStatus(HttpStatus.METHOD_NOT_ALLOWED)
+    public ErrorResponse handleMethodNotSupported(final HttpRequestMethodNotSupportedException e) {
+        return new ErrorResponse(String.format("Метод %s не поддерживается", e.getMethod()));
+    }
+
     @ExceptionHandler(DuplicatedDataException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleDuplicatedData(final DuplicatedDataException e) {
@@ -33,12 +51,24 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrencyFailure(final ConcurrencyFailureException e) {
+        return new ErrorResponse("Вещь была изменена параллельным запросом, повторите попытку");
+    }
+
     @ExceptionHandler(NotItemOwnerException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleNotItemOwnerException(final NotItemOwnerException e) {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ErrorResponse handleTooManyRequests(final TooManyRequestsException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
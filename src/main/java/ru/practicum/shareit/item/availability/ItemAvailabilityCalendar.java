@@ -0,0 +1,206 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ItemBookingDates;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Подтверждённые бронирования каждой вещи, упорядоченные по дате начала.
+ * Новые подтверждённые бронирования одной вещи не пересекаются, но старые строки могут пересекаться,
+ * поэтому назад от даты просматриваются бронирования, начавшиеся не раньше, чем длится самое длинное из них.
+ * Календарь строится по событиям своего экземпляра: при нескольких экземплярах приложения
+ * он не видит чужих изменений, и его нужно выключить свойством {@code shareit.items.availability-calendar.enabled},
+ * тогда даты читаются из базы.
+ */
+@Slf4j
+@Component
+public class ItemAvailabilityCalendar {
+
+    private static final int BOOTSTRAP_BATCH_SIZE = 10_000;
+    private static final Comparator<BookedInterval> BY_START = Comparator.comparing(BookedInterval::start)
+            .thenComparing(BookedInterval::bookingId);
+
+    private final boolean enabled;
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private final Map<Long, BookedInterval> intervals = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public ItemAvailabilityCalendar(@Value("${shareit.items.availability-calendar.enabled:true}") boolean enabled,
+                                    BookingRepository bookingRepository) {
+        this.enabled = enabled;
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("Календарь доступности вещей выключен, даты бронирований читаются из базы");
+            return;
+        }
+        log.info("Построение календаря доступности вещей");
+        ready = false;
+        timelines.clear();
+        intervals.clear();
+        long lastId = 0;
+        List<BookedInterval> batch;
+        do {
+            batch = bookingRepository.findBookedIntervals(Statuses.APPROVED, lastId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+            for (BookedInterval interval : batch) {
+                add(interval);
+                lastId = interval.bookingId();
+            }
+        } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        ready = true;
+        log.info("Календарь доступности вещей построен, бронирований: {}", intervals.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        remove(event.bookingId());
+        if (!event.deleted() && event.status() == Statuses.APPROVED && event.start() != null && event.end() != null) {
+            add(new BookedInterval(event.bookingId(), event.itemId(), event.start(), event.end()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.deleted()) {
+            dropTimeline(event.itemId());
+        }
+    }
+
+    /**
+     * Вещи пользователя и их бронирования удаляются каскадом в базе данных.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.itemIds().forEach(this::dropTimeline);
+    }
+
+    /**
+     * Подтверждённые бронирования вещи, пересекающие период, в порядке начала
+     * или пустой Optional, если календарь ещё не построен.
+     */
+    public Optional<List<BookedInterval>> findIntersecting(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Timeline timeline = timelines.get(itemId);
+        if (timeline == null) {
+            return Optional.of(List.of());
+        }
+        List<BookedInterval> result = new ArrayList<>();
+        // начавшиеся раньше from, но не закончившиеся к нему; раньше from - longest ни одно не доживает до from
+        for (BookedInterval earlier : timeline.intervals.subSet(probe(from.minus(timeline.longest)), true, probe(from), false)) {
+            if (earlier.end().isAfter(from)) {
+                result.add(earlier);
+            }
+        }
+        result.addAll(timeline.intervals.subSet(probe(from), true, probe(to), false));
+        return Optional.of(result);
+    }
+
+    /**
+     * Окончание последнего завершившегося и начало ближайшего будущего бронирования для вещей,
+     * у которых есть подтверждённые бронирования, в порядке переданных идентификаторов,
+     * или пустой Optional, если календарь ещё не построен.
+     */
+    public Optional<List<ItemBookingDates>> findBookingDates(Collection<Long> itemIds, LocalDateTime now) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<ItemBookingDates> result = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            Timeline timeline = timelines.get(itemId);
+            if (timeline == null) {
+                continue;
+            }
+            BookedInterval next = timeline.intervals.ceiling(probe(now));
+            LocalDateTime lastEnd = null;
+            Iterator<BookedInterval> earlier = timeline.intervals.headSet(probe(now), false).descendingIterator();
+            while (earlier.hasNext()) {
+                BookedInterval interval = earlier.next();
+                // более раннее бронирование не может закончиться позже найденного
+                if (lastEnd != null && !interval.start().plus(timeline.longest).isAfter(lastEnd)) {
+                    break;
+                }
+                if (interval.end().isBefore(now) && (lastEnd == null || interval.end().isAfter(lastEnd))) {
+                    lastEnd = interval.end();
+                }
+            }
+            result.add(new ItemBookingDates(itemId, lastEnd, next == null ? null : next.start()));
+        }
+        return Optional.of(result);
+    }
+
+    private void add(BookedInterval interval) {
+        intervals.put(interval.bookingId(), interval);
+        timelines.compute(interval.itemId(), (itemId, timeline) -> {
+            Timeline result = timeline == null ? new Timeline() : timeline;
+            result.intervals.add(interval);
+            Duration length = Duration.between(interval.start(), interval.end());
+            if (length.compareTo(result.longest) > 0) {
+                result.longest = length;
+            }
+            return result;
+        });
+    }
+
+    private void remove(Long bookingId) {
+        BookedInterval interval = intervals.remove(bookingId);
+        if (interval != null) {
+            timelines.computeIfPresent(interval.itemId(), (itemId, timeline) -> {
+                timeline.intervals.remove(interval);
+                return timeline.intervals.isEmpty() ? null : timeline;
+            });
+        }
+    }
+
+    private void dropTimeline(Long itemId) {
+        Timeline timeline = timelines.remove(itemId);
+        if (timeline != null) {
+            timeline.intervals.forEach(interval -> intervals.remove(interval.bookingId()));
+        }
+    }
+
+    private static BookedInterval probe(LocalDateTime start) {
+        return new BookedInterval(Long.MIN_VALUE, null, start, null);
+    }
+
+    /**
+     * Длительность самого длинного бронирования при удалении не уменьшается: граница просмотра остаётся верной,
+     * только чуть шире нужного.
+     */
+    private static class Timeline {
+
+        private final NavigableSet<BookedInterval> intervals = new ConcurrentSkipListSet<>(BY_START);
+        private volatile Duration longest = Duration.ZERO;
+    }
+}
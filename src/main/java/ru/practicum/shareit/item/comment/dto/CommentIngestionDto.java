@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.enums.IngestionStatuses;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentIngestionDto {
+    private UUID trackingId;
+    private IngestionStatuses status;
+    private CommentDto comment;
+    private String error;
+}
@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.comment.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.enums.IngestionStatuses;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.comment.dto.CommentIngestionDto;
+import ru.practicum.shareit.item.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронный приём комментариев: проверка права комментировать выполняется в потоке запроса,
+ * а сохранение - пакетами в отдельном потоке. Ограниченная очередь даёт обратное давление:
+ * если за {@code offer-timeout} место не освободилось, запрос отклоняется с 429. Сервис останавливается
+ * после веб-сервера, чтобы дописать комментарии, принятые во время его плавной остановки.
+ */
+@Slf4j
+@Component
+@Profile("!in-memory")
+public class CommentIngestionService implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final BlockingQueue<PendingComment> queue;
+    private final Cache<UUID, CommentIngestionDto> statuses;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final CompletedBookingCache completedBookingCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private volatile boolean running;
+    private Thread worker;
+
+    public CommentIngestionService(@Value("${shareit.comments.async.enabled:false}") boolean enabled,
+                                   @Value("${shareit.comments.async.queue-capacity:10000}") int queueCapacity,
+                                   @Value("${shareit.comments.async.batch-size:100}") int batchSize,
+                                   @Value("${shareit.comments.async.offer-timeout:50ms}") Duration offerTimeout,
+                                   @Value("${shareit.comments.async.status-ttl:PT1H}") Duration statusTtl,
+                                   UserRepository userRepository,
+                                   ItemRepository itemRepository,
+                                   CommentRepository commentRepository,
+                                   CompletedBookingCache completedBookingCache,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.statuses = Caffeine.newBuilder().expireAfterWrite(statusTtl).build();
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.commentRepository = commentRepository;
+        this.completedBookingCache = completedBookingCache;
+        this.transactionTemplate = transactionTemplate;
+        this.primaryReadTransactionTemplate =
+                ReplicaRoutingDataSource.primaryReadTransactionTemplate(transactionTemplate.getTransactionManager());
+        Gauge.builder("shareit.comments.queue.size", queue, BlockingQueue::size)
+                .description("Комментарии, ожидающие сохранения")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CommentIngestionDto submit(Long authorId, Long itemId, NewCommentRequest request) {
+        log.info("Постановка комментария в очередь");
+        if (!isRunning()) {
+            throw new TooManyRequestsException("Приём комментариев остановлен, повторите попытку позже");
+        }
+        // проверки перед записью читают основную базу: на реплике может не быть только что завершённого бронирования
+        Comment comment = primaryReadTransactionTemplate.execute(status -> {
+            User author = userRepository.findById(authorId)
+                    .orElseThrow(() -> new NotFoundException(String.format("Пользователь c id %d не найден", authorId)));
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException(String.format("Вещь c id %d не найдена", itemId)));
+            if (!completedBookingCache.hasCompletedBooking(authorId, itemId)) {
+                throw new ValidationException(String.format("Пользователь %d не может оставить комментарий," +
+                        " если не пользовался вещью", authorId));
+            }
+            return CommentMapper.INSTANCE.mapToComment(author, item, request);
+        });
+        CommentIngestionDto status = new CommentIngestionDto(UUID.randomUUID(), IngestionStatuses.QUEUED, null, null);
+        statuses.put(status.getTrackingId(), status);
+        PendingComment pending = new PendingComment(status.getTrackingId(), comment);
+        if (!offer(pending)) {
+            statuses.invalidate(status.getTrackingId());
+            throw new TooManyRequestsException("Очередь комментариев переполнена, повторите попытку позже");
+        }
+        // остановка могла начаться после проверки: если поток уже не забрал комментарий, он не будет сохранён
+        if (!isRunning() && queue.remove(pending)) {
+            statuses.invalidate(status.getTrackingId());
+            throw new TooManyRequestsException("Приём комментариев остановлен, повторите попытку позже");
+        }
+        return status;
+    }
+
+    public Optional<CommentIngestionDto> findStatus(UUID trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().name("comment-ingestion").daemon().start(this::drain);
+        log.info("Включён асинхронный приём комментариев, пакет до {} комментариев", batchSize);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (worker == null) {
+            return;
+        }
+        // поток дописывает уже принятые комментарии и завершается
+        running = false;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private boolean offer(PendingComment pending) {
+        try {
+            return queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drain() {
+        List<PendingComment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingComment first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    commentRepository.saveAll(batch.stream().map(PendingComment::comment).toList()));
+            batch.forEach(this::markSaved);
+            log.debug("Сохранено комментариев: {}", batch.size());
+        } catch (RuntimeException e) {
+            // например, вещь удалили, пока комментарий ждал в очереди
+            log.warn("Пакет из {} комментариев не сохранён, сохраняем по одному: {}", batch.size(), e.getMessage());
+            for (PendingComment pending : batch) {
+                pending.comment().setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> commentRepository.save(pending.comment()));
+                    markSaved(pending);
+                } catch (RuntimeException single) {
+                    statuses.put(pending.trackingId(), new CommentIngestionDto(pending.trackingId(),
+                            IngestionStatuses.FAILED, null, "Комментарий не сохранён"));
+                }
+            }
+        }
+    }
+
+    private void markSaved(PendingComment pending) {
+        statuses.put(pending.trackingId(), new CommentIngestionDto(pending.trackingId(), IngestionStatuses.SAVED,
+                CommentMapper.INSTANCE.mapToCommentDto(pending.comment()), null));
+    }
+}
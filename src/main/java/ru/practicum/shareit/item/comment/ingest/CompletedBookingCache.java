@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.comment.ingest;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Пары (автор, вещь), для которых есть завершённое бронирование. Кэшируются только положительные ответы:
+ * завершённое бронирование остаётся завершённым, а отрицательный ответ меняется с течением времени.
+ */
+@Component
+public class CompletedBookingCache {
+
+    private final BookingRepository bookingRepository;
+    private final Cache<BookerItem, Boolean> completed;
+
+    public CompletedBookingCache(BookingRepository bookingRepository,
+                                 @Value("${shareit.comments.completed-bookings.maximum-size:100000}") long maximumSize) {
+        this.bookingRepository = bookingRepository;
+        this.completed = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    public boolean hasCompletedBooking(Long bookerId, Long itemId) {
+        BookerItem key = new BookerItem(bookerId, itemId);
+        if (completed.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean result = bookingRepository.existsByBookerIdAndItemIdAndEndBefore(bookerId, itemId, LocalDateTime.now());
+        if (result) {
+            completed.put(key, Boolean.TRUE);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        completed.invalidate(new BookerItem(event.bookerId(), event.itemId()));
+    }
+
+    private record BookerItem(Long bookerId, Long itemId) {
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.comment.ingest;
+
+import ru.practicum.shareit.item.comment.model.Comment;
+
+import java.util.UUID;
+
+record PendingComment(UUID trackingId, Comment comment) {
+}
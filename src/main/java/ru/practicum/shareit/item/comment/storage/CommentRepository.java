@@ -1,16 +1,20 @@
 package ru.practicum.shareit.item.comment.storage;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(Long itemId);
 
-    @Query("select c from Comment c where item.id in (:itemIds) order by created")
-    List<Comment> findCommentsForItems(@Param("itemIds") List<Long> itemIds);
+    @Query("select new ru.practicum.shareit.item.comment.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id in (:itemIds) order by c.item.id, c.created")
+    List<CommentDto> findCommentsForItems(@Param("itemIds") List<Long> itemIds);
 }
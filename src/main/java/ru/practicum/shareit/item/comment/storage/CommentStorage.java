@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.comment.storage;
+
+import ru.practicum.shareit.item.comment.model.Comment;
+
+import java.util.Collection;
+
+public interface CommentStorage {
+
+    Comment createComment(Comment comment);
+
+    Collection<Comment> getCommentsByItemId(Long itemId);
+
+    boolean isAuthorExists(Long authorId);
+
+    void deleteCommentsByItemId(Long itemId);
+}
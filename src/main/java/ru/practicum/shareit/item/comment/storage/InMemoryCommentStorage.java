@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.comment.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.comment.model.Comment;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Хранилище отзывов в памяти (профиль in-memory). Отзывы только добавляются и удаляются вместе с вещью,
+ * индексы по вещи и автору меняются внутри compute по id отзыва; хранятся и возвращаются копии.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryCommentStorage implements CommentStorage {
+
+    private final Map<Long, Comment> comments = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> commentIdsByItemId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> commentIdsByAuthorId = new ConcurrentHashMap<>();
+    private final AtomicLong lastCommentId = new AtomicLong();
+
+    @Override
+    public Comment createComment(Comment comment) {
+        Comment created = copy(comment);
+        created.setId(lastCommentId.incrementAndGet());
+        comments.compute(created.getId(), (commentId, previous) -> {
+            commentIdsByItemId.compute(created.getItem().getId(), (key, ids) -> addId(ids, commentId));
+            commentIdsByAuthorId.compute(created.getAuthor().getId(), (key, ids) -> addId(ids, commentId));
+            return created;
+        });
+        return copy(created);
+    }
+
+    @Override
+    public Collection<Comment> getCommentsByItemId(Long itemId) {
+        return commentIdsByItemId.getOrDefault(itemId, Set.of()).stream()
+                .sorted()
+                .map(comments::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryCommentStorage::copy)
+                .toList();
+    }
+
+    @Override
+    public boolean isAuthorExists(Long authorId) {
+        return commentIdsByAuthorId.containsKey(authorId);
+    }
+
+    @Override
+    public void deleteCommentsByItemId(Long itemId) {
+        for (Long commentId : Set.copyOf(commentIdsByItemId.getOrDefault(itemId, Set.of()))) {
+            comments.computeIfPresent(commentId, (id, comment) -> {
+                commentIdsByItemId.computeIfPresent(comment.getItem().getId(), (key, ids) -> removeId(ids, id));
+                commentIdsByAuthorId.computeIfPresent(comment.getAuthor().getId(), (key, ids) -> removeId(ids, id));
+                return null;
+            });
+        }
+    }
+
+    private static Set<Long> addId(Set<Long> ids, Long id) {
+        Set<Long> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+        result.add(id);
+        return result;
+    }
+
+    private static Set<Long> removeId(Set<Long> ids, Long id) {
+        ids.remove(id);
+        return ids.isEmpty() ? null : ids;
+    }
+
+    private static Comment copy(Comment comment) {
+        Comment copy = new Comment();
+        copy.setId(comment.getId());
+        copy.setText(comment.getText());
+        copy.setItem(comment.getItem());
+        copy.setAuthor(comment.getAuthor());
+        copy.setCreated(comment.getCreated());
+        return copy;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.dto.CommentIngestionDto;
+import ru.practicum.shareit.item.comment.ingest.CommentIngestionService;
+
+import java.util.UUID;
+
+/**
+ * Статус комментария из очереди асинхронного приёма; в профиле in-memory очереди нет.
+ */
+@RestController
+@RequestMapping("/items")
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class CommentIngestionController {
+
+    private final CommentIngestionService commentIngestionService;
+
+    @GetMapping(ItemControllerHeaderConstants.COMMENT_STATUS_PATH)
+    public CommentIngestionDto findCommentStatus(@PathVariable(ItemControllerHeaderConstants.TRACKING_ID) UUID trackingId) {
+        return commentIngestionService.findStatus(trackingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Комментарий %s не найден в очереди", trackingId)));
+    }
+}
@@ -1,18 +1,26 @@
 package ru.practicum.shareit.item.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.item.comment.dto.CommentDto;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.comment.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ExtendedItemService;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
+import ru.practicum.shareit.item.comment.ingest.CommentIngestionService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @Slf4j
@@ -22,6 +30,7 @@ import java.util.Collection;
 public class ItemController {
 
     private final ExtendedItemService itemService;
+    private final ObjectProvider<CommentIngestionService> commentIngestionService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -32,7 +41,14 @@ public class ItemController {
 
     @GetMapping(ItemControllerHeaderConstants.PATH)
     public ExtendedItemDto findItem(@Valid @PathVariable(ItemControllerHeaderConstants.ID) Long itemId,
-                                    @RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long ownerId) {
+                                    @RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long ownerId,
+                                    WebRequest request, HttpServletResponse response) {
+        // владелец видит даты бронирований, поэтому ответ и ETag зависят от пользователя
+        response.addHeader(HttpHeaders.VARY, ItemControllerHeaderConstants.X_SHARER_USER_ID);
+        String eTag = itemService.getItemETag(itemId, ownerId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return itemService.getItemById(itemId, ownerId);
     }
 
@@ -42,6 +58,13 @@ public class ItemController {
         return itemService.getItemByText(text);
     }
 
+    @GetMapping(ItemControllerHeaderConstants.PATH_PLUS_AVAILABILITY_PATH)
+    public Collection<FreeSlotDto> findFreeSlots(@PathVariable(ItemControllerHeaderConstants.ID) Long itemId,
+                                                 @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getFreeSlots(itemId, from, to);
+    }
+
     @GetMapping
     public Collection<ExtendedItemDto> getItems(@RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long ownerId) {
         return itemService.getAllItemsById(ownerId);
@@ -59,11 +82,47 @@ public class ItemController {
         itemService.deleteItem(itemId);
     }
 
+    /**
+     * Комментарий с предпочтением respond-async в заголовке Prefer ставится в очередь и возвращается 202
+     * с идентификатором для отслеживания. Если асинхронный приём выключен, комментарий сохраняется сразу.
+     */
     @PostMapping(ItemControllerHeaderConstants.PATH_PLUS_COMMENT_PATH)
-    @ResponseStatus(HttpStatus.CREATED)
-    public CommentDto addComment(@RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long authorId,
-                                 @PathVariable(ItemControllerHeaderConstants.ID) Long itemId,
-                                 @Valid @RequestBody NewCommentRequest newCommentRequest) {
-        return itemService.addComment(authorId, itemId, newCommentRequest);
+    public ResponseEntity<Object> addComment(@RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long authorId,
+                                             @PathVariable(ItemControllerHeaderConstants.ID) Long itemId,
+                                             @Valid @RequestBody NewCommentRequest newCommentRequest,
+                                             @RequestHeader(value = ItemControllerHeaderConstants.PREFER, required = false) String prefer) {
+        // в профиле in-memory очереди нет, как и при выключенном асинхронном приёме
+        CommentIngestionService ingestion = commentIngestionService.getIfAvailable();
+        if (!prefersRespondAsync(prefer) || ingestion == null || !ingestion.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(itemService.addComment(authorId, itemId, newCommentRequest));
+        }
+        return ResponseEntity.accepted()
+                .header(ItemControllerHeaderConstants.PREFERENCE_APPLIED, ItemControllerHeaderConstants.RESPOND_ASYNC)
+                .body(ingestion.submit(authorId, itemId, newCommentRequest));
+    }
+
+    /**
+     * Заголовок Prefer по RFC 7240: предпочтения через запятую, у каждого могут быть значение и параметры
+     * после "=" и ";", имя без учёта регистра, запятые внутри кавычек не разделяют предпочтения.
+     */
+    private static boolean prefersRespondAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        boolean quoted = false;
+        int from = 0;
+        for (int i = 0; i <= prefer.length(); i++) {
+            char c = i < prefer.length() ? prefer.charAt(i) : ',';
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                String name = prefer.substring(from, i).split("[=;]", 2)[0].trim();
+                if (name.equalsIgnoreCase(ItemControllerHeaderConstants.RESPOND_ASYNC)) {
+                    return true;
+                }
+                from = i + 1;
+            }
+        }
+        return false;
     }
 }
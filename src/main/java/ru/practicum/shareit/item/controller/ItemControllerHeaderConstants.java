@@ -7,4 +7,13 @@ public class ItemControllerHeaderConstants {
     public static final String ID = "id";
     public static final String COMMENT_PATH = "/comment";
     public static final String PATH_PLUS_COMMENT_PATH = PATH + COMMENT_PATH;
+    public static final String AVAILABILITY_PATH = "/availability";
+    public static final String TRACKING_ID = "trackingId";
+    public static final String COMMENT_STATUS_PATH = "/comments/{trackingId}";
+    public static final String PREFER = "Prefer";
+    public static final String PREFERENCE_APPLIED = "Preference-Applied";
+    public static final String RESPOND_ASYNC = "respond-async";
+    public static final String PATH_PLUS_AVAILABILITY_PATH = PATH + AVAILABILITY_PATH;
+    public static final String IMPORT_PATH = "/import";
+    public static final String TEXT_CSV = "text/csv";
 }
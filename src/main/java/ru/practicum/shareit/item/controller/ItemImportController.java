@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.importer.ItemImportService;
+
+import java.io.InputStream;
+
+/**
+ * Импорт пишет вещи пакетами через JDBC, поэтому в профиле in-memory его нет.
+ */
+@RestController
+@RequestMapping("/items")
+@Profile("!in-memory")
+@RequiredArgsConstructor
+public class ItemImportController {
+
+    private final ItemImportService itemImportService;
+
+    /**
+     * Тело не буферизуется: JSON-массив или CSV разбирается по мере чтения, ответ - итог импорта.
+     */
+    @PostMapping(path = ItemControllerHeaderConstants.IMPORT_PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemImportResult importItems(@RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long ownerId,
+                                        InputStream body) {
+        return itemImportService.importJson(ownerId, body);
+    }
+
+    @PostMapping(path = ItemControllerHeaderConstants.IMPORT_PATH, consumes = ItemControllerHeaderConstants.TEXT_CSV)
+    public ItemImportResult importItemsFromCsv(@RequestHeader(ItemControllerHeaderConstants.X_SHARER_USER_ID) Long ownerId,
+                                               InputStream body) {
+        return itemImportService.importCsv(ownerId, body);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог импорта: сколько строк прочитано, сохранено и отклонено. Причины отказа перечисляются
+ * только для первых строк, чтобы ответ на файл с миллионом ошибок оставался небольшим.
+ */
+@Data
+public class ItemImportResult {
+    private long received;
+    private long imported;
+    private long rejected;
+    private boolean completed = true;
+    private List<ItemImportError> errors = new ArrayList<>();
+}
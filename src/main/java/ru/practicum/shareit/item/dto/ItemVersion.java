@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemVersion(Long itemId, Long version, Long ownerId, Long commentCount, Long lastCommentId) {
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.event;
+
+import ru.practicum.shareit.item.model.Item;
+
+public record ItemChangedEvent(Long itemId, String name, String description, boolean available, boolean deleted) {
+
+    public static ItemChangedEvent saved(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), false);
+    }
+
+    public static ItemChangedEvent deleted(Long itemId) {
+        return new ItemChangedEvent(itemId, null, null, false, true);
+    }
+}
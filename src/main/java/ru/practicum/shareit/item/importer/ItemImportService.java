@@ -0,0 +1,223 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.dto.NewItemRequest;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка вещей владельца из JSON-массива или CSV с заголовком.
+ * Тело читается потоково по одной строке, проверенные строки копятся до {@code batch-size} и сохраняются
+ * одной транзакцией JDBC-пакетами Hibernate, поэтому память не зависит от размера файла.
+ * Сохранённые пакеты не откатываются, если дальше в файле встретилась ошибка.
+ */
+@Slf4j
+@Service
+@Profile("!in-memory")
+@Timed(value = "shareit.service", histogram = true)
+public class ItemImportService {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ItemImportService(@Value("${shareit.items.import.batch-size:1000}") int batchSize,
+                             @Value("${shareit.items.import.max-reported-errors:100}") int maxReportedErrors,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             UserRepository userRepository,
+                             ItemRepository itemRepository,
+                             ItemRequestRepository itemRequestRepository,
+                             TransactionTemplate transactionTemplate,
+                             EntityManager entityManager,
+                             ApplicationEventPublisher eventPublisher) {
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.primaryReadTransactionTemplate =
+                ReplicaRoutingDataSource.primaryReadTransactionTemplate(transactionTemplate.getTransactionManager());
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ItemImportResult importJson(Long ownerId, InputStream body) {
+        return importItems(ownerId, () -> objectMapper.readerFor(NewItemRequest.class).readValues(body));
+    }
+
+    public ItemImportResult importCsv(Long ownerId, InputStream body) {
+        return importItems(ownerId, () -> CSV_MAPPER.readerFor(NewItemRequest.class).with(CSV_SCHEMA).readValues(body));
+    }
+
+    private ItemImportResult importItems(Long ownerId, RowSource source) {
+        log.info("POST /items/import - импорт вещей");
+        // CRUD-методы репозитория по умолчанию read-only и вне транзакции ушли бы на реплику
+        if (!Boolean.TRUE.equals(primaryReadTransactionTemplate.execute(status -> userRepository.existsById(ownerId)))) {
+            throw new NotFoundException(String.format("Пользователь с id %d не найден", ownerId));
+        }
+
+        ItemImportResult result = new ItemImportResult();
+        List<PendingItem> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<NewItemRequest> rows = source.open()) {
+            while (rows.hasNextValue()) {
+                long row = result.getReceived() + 1;
+                NewItemRequest request;
+                try {
+                    request = rows.nextValue();
+                } catch (DatabindException e) {
+                    if (e.getCause() instanceof StreamReadException syntaxError) {
+                        throw syntaxError;
+                    }
+                    // итератор сам пропускает остаток строки с неверным значением
+                    result.setReceived(row);
+                    reject(result, row, "Некорректное значение: " + e.getOriginalMessage());
+                    continue;
+                }
+                result.setReceived(row);
+                String violations = validate(request);
+                if (violations != null) {
+                    reject(result, row, violations);
+                    continue;
+                }
+                batch.add(new PendingItem(row, request));
+                if (batch.size() == batchSize) {
+                    flush(ownerId, batch, result);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Импорт вещей прерван на строке {}: {}", result.getReceived() + 1, e.getMessage());
+            result.setCompleted(false);
+            result.getErrors().add(new ItemImportError(result.getReceived() + 1, "Данные не разобраны, импорт остановлен"));
+        }
+        flush(ownerId, batch, result);
+
+        log.info("Импорт вещей завершён: прочитано {}, сохранено {}, отклонено {}",
+                result.getReceived(), result.getImported(), result.getRejected());
+        return result;
+    }
+
+    private String validate(NewItemRequest request) {
+        if (request == null) {
+            return "Пустая строка";
+        }
+        Set<ConstraintViolation<NewItemRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void flush(Long ownerId, List<PendingItem> batch, ItemImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> requestIds = batch.stream()
+                .map(pending -> pending.request().getRequest())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingRequestIds = requestIds.isEmpty() ? Set.of() : itemRequestRepository.findExistingIds(requestIds);
+        List<PendingItem> accepted = new ArrayList<>(batch.size());
+        for (PendingItem pending : batch) {
+            Long requestId = pending.request().getRequest();
+            if (requestId != null && !existingRequestIds.contains(requestId)) {
+                reject(result, pending.row(), String.format("Запрос c id %d не найден", requestId));
+            } else {
+                accepted.add(pending);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // импортированные вещи не читаются сразу, незачем вытеснять ими горячие записи кэша второго уровня
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                User owner = userRepository.getReferenceById(ownerId);
+                List<Item> items = accepted.stream()
+                        .map(pending -> {
+                            Item item = ItemMapper.INSTANCE.mapToItem(owner, pending.request());
+                            item.setId(null);
+                            return item;
+                        })
+                        .toList();
+                itemRepository.saveAll(items);
+                items.forEach(item -> eventPublisher.publishEvent(ItemChangedEvent.saved(item)));
+            });
+            result.setImported(result.getImported() + accepted.size());
+            log.debug("Сохранено вещей: {}", accepted.size());
+        } catch (RuntimeException e) {
+            log.warn("Пакет из {} вещей не сохранён: {}", accepted.size(), e.getMessage());
+            accepted.forEach(pending -> reject(result, pending.row(), "Вещь не сохранена"));
+        }
+    }
+
+    private void reject(ItemImportResult result, long row, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ItemImportError(row, error));
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        MappingIterator<NewItemRequest> open() throws IOException;
+    }
+
+    private record PendingItem(long row, NewItemRequest request) {
+    }
+}
@@ -31,12 +31,14 @@ public interface ItemMapper {
     @Mapping(target = "available", source = "newItemRequest.available")
     @Mapping(target = "requestId", source = "newItemRequest.request")
     @Mapping(target = "owner", source = "user")
+    @Mapping(target = "version", ignore = true)
     Item mapToItem(User user, NewItemRequest newItemRequest);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", ignore = true)
     @Mapping(target = "requestId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateItemFromRequest(UpdateItemRequest updateItemRequest, @MappingTarget Item item);
 
     @Mapping(source = "item.id", target = "id")
@@ -62,6 +64,20 @@ public interface ItemMapper {
     @Mapping(source = "comments", target = "comments")
     ExtendedItemDto mapToExtendedItemDto(Item item, List<Comment> comments);
 
+    @Mapping(source = "item.id", target = "id")
+    @Mapping(source = "item.name", target = "name")
+    @Mapping(source = "item.description", target = "description")
+    @Mapping(source = "item.available", target = "available")
+    @Mapping(source = "item.owner.id", target = "owner")
+    @Mapping(source = "item.requestId", target = "request")
+    @Mapping(source = "lastBooking", target = "lastBooking")
+    @Mapping(source = "nextBooking", target = "nextBooking")
+    @Mapping(source = "comments", target = "comments")
+    ExtendedItemDto mapToExtendedItemDto(Item item,
+                                         LocalDateTime lastBooking,
+                                         LocalDateTime nextBooking,
+                                         List<CommentDto> comments);
+
     List<CommentDto> commentsToCommentDtos(List<Comment> comments);
 
     default ExtendedItemDto mapToExtendedItemDto(Item item,
@@ -2,9 +2,13 @@ package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "items")
 @AllArgsConstructor
 @NoArgsConstructor
@@ -14,7 +18,8 @@ import ru.practicum.shareit.user.model.User;
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -33,4 +38,8 @@ public class Item {
 
     @Column(name = "request_id")
     private Long requestId;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex {
+
+    private static final int BOOTSTRAP_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final TrigramIndex index = new TrigramIndex();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Построение поискового индекса вещей");
+        ready = false;
+        index.clear();
+        long lastId = 0;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocuments(lastId, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+            for (ItemSearchDocument document : batch) {
+                index.put(document.id(), document.name(), document.description());
+                lastId = document.id();
+            }
+        } while (batch.size() == BOOTSTRAP_BATCH_SIZE);
+        ready = true;
+        log.info("Поисковый индекс вещей построен, документов: {}", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.deleted() || !event.available()) {
+            index.remove(event.itemId());
+        } else {
+            index.put(event.itemId(), event.name(), event.description());
+        }
+    }
+
+    /**
+     * Идентификаторы доступных вещей, содержащих текст, или пустой Optional, если индекс ещё не построен,
+     * запрос слишком короткий для поиска по триграммам либо совпадений больше {@code maxCandidates}.
+     */
+    public Optional<List<Long>> findItemIds(String text, int maxCandidates) {
+        if (!ready || text.length() < TrigramIndex.MIN_QUERY_LENGTH) {
+            return Optional.empty();
+        }
+        List<Long> itemIds = index.search(text, maxCandidates);
+        return itemIds.size() > maxCandidates ? Optional.empty() : Optional.of(itemIds);
+    }
+}
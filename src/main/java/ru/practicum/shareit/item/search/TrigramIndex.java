@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс по триграммам названия и описания вещи.
+ * Позволяет искать подстроку без полного перебора: кандидаты берутся из самого
+ * короткого списка вхождений триграмм запроса и затем проверяются на точное совпадение.
+ */
+public class TrigramIndex {
+
+    public static final int MIN_QUERY_LENGTH = 3;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalEntries;
+    private long staleEntries;
+
+    public void put(Long id, String name, String description) {
+        Document document = new Document(normalize(name), normalize(description));
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.put(id, document);
+            Set<Long> previousTrigrams = previous == null ? Set.of() : previous.trigrams();
+            for (Long trigram : document.trigrams()) {
+                if (!previousTrigrams.contains(trigram)) {
+                    postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+                    totalEntries++;
+                }
+            }
+            if (previous != null) {
+                staleEntries += previousTrigrams.size();
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Document previous = documents.remove(id);
+            if (previous != null) {
+                staleEntries += previous.trigrams().size();
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalEntries = 0;
+            staleEntries = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает отсортированные идентификаторы документов, содержащих текст в названии или описании.
+     * Перебор останавливается, как только найдено больше {@code limit} документов.
+     * Запросы короче {@link #MIN_QUERY_LENGTH} символов индексом не обслуживаются.
+     */
+    public List<Long> search(String text, int limit) {
+        String query = normalize(text);
+        if (query.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Запрос короче " + MIN_QUERY_LENGTH + " символов");
+        }
+        lock.readLock().lock();
+        try {
+            Postings shortest = null;
+            for (Long trigram : trigrams(query)) {
+                Postings candidates = postings.get(trigram);
+                if (candidates == null) {
+                    return List.of();
+                }
+                if (shortest == null || candidates.size < shortest.size) {
+                    shortest = candidates;
+                }
+            }
+            Set<Long> result = new TreeSet<>();
+            for (int i = 0; i < shortest.size && result.size() <= limit; i++) {
+                long id = shortest.ids[i];
+                Document document = documents.get(id);
+                if (document != null && document.contains(query)) {
+                    result.add(id);
+                }
+            }
+            return new ArrayList<>(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (staleEntries < 1024 || staleEntries * 2 < totalEntries) {
+            return;
+        }
+        postings.clear();
+        totalEntries = 0;
+        documents.forEach((id, document) -> {
+            for (Long trigram : document.trigrams()) {
+                postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+                totalEntries++;
+            }
+        });
+        staleEntries = 0;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigrams(String... fields) {
+        Set<Long> result = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + MIN_QUERY_LENGTH <= field.length(); i++) {
+                result.add(((long) field.charAt(i) << 32) | ((long) field.charAt(i + 1) << 16) | field.charAt(i + 2));
+            }
+        }
+        return result;
+    }
+
+    private record Document(String name, String description) {
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<Long> trigrams() {
+            return TrigramIndex.trigrams(name, description);
+        }
+    }
+
+    private static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
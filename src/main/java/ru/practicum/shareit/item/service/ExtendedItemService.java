@@ -3,10 +3,12 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.NewCommentRequest;
 import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 public interface ExtendedItemService {
@@ -19,9 +21,13 @@ public interface ExtendedItemService {
 
     ExtendedItemDto getItemById(Long itemId, Long ownerId);
 
+    String getItemETag(Long itemId, Long ownerId);
+
     Collection<ItemDto> getItemByText(String text);
 
     Collection<ExtendedItemDto> getAllItemsById(Long ownerId);
 
+    Collection<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to);
+
     CommentDto addComment(Long authorId, Long itemId, NewCommentRequest newCommentRequest);
 }
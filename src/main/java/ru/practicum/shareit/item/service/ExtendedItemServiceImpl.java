@@ -1,44 +1,62 @@
 package ru.practicum.shareit.item.service;
 
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.ItemBookingDates;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.enums.Statuses;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotItemOwnerException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.BookedInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCalendar;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.dto.NewCommentRequest;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.storage.CommentRepository;
 import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.dto.NewItemRequest;
 import ru.practicum.shareit.item.dto.UpdateItemRequest;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Profile("!in-memory")
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 public class ExtendedItemServiceImpl implements ExtendedItemService {
 
+    private static final int SEARCH_MAX_INDEXED_CANDIDATES = 1_000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailabilityCalendar availabilityCalendar;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User findUserById(Long userId) {
         return userRepository.findById(userId)
@@ -50,16 +68,18 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь c id %d не найдена", itemId)));
     }
 
-    Optional<LocalDateTime> findLastBookingEndByItemId(Long itemId, LocalDateTime dateTime) {
-        return bookingRepository.findPastBookingEndByItemId(itemId, Statuses.APPROVED, dateTime)
-                .stream()
-                .max(Comparator.naturalOrder());
+    private Optional<ItemBookingDates> findItemBookingDates(Long itemId) {
+        return findItemBookingDates(List.of(itemId)).stream().findFirst();
     }
 
-    Optional<LocalDateTime> findNextBookingEndByItemId(Long itemId, LocalDateTime dateTime) {
-        return bookingRepository.findFutureBookingEndByItemId(itemId, Statuses.APPROVED, dateTime)
-                .stream()
-                .min(Comparator.naturalOrder());
+    /**
+     * Даты бронирований в порядке возрастания id вещей, идентификаторы должны быть упорядочены.
+     * Календарь в памяти верен только для одного экземпляра приложения, иначе он выключается и даты читаются из базы.
+     */
+    private List<ItemBookingDates> findItemBookingDates(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        return availabilityCalendar.findBookingDates(itemIds, now)
+                .orElseGet(() -> bookingRepository.findItemBookingDates(itemIds, Statuses.APPROVED, now));
     }
 
     @Override
@@ -69,9 +89,13 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
 
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с id %d не найден", ownerId)));
+        if (request.getRequest() != null && !itemRequestRepository.existsById(request.getRequest())) {
+            throw new NotFoundException(String.format("Запрос c id %d не найден", request.getRequest()));
+        }
 
         Item item = ItemMapper.INSTANCE.mapToItem(owner, request);
         itemRepository.save(item);
+        eventPublisher.publishEvent(ItemChangedEvent.saved(item));
 
         return ItemMapper.INSTANCE.mapToItemDto(item);
     }
@@ -90,6 +114,7 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
         }
 
         Item updatedItem = itemRepository.save(ItemMapper.INSTANCE.updateItemFields(item, request));
+        eventPublisher.publishEvent(ItemChangedEvent.saved(updatedItem));
         return ItemMapper.INSTANCE.mapToItemDto(updatedItem);
     }
 
@@ -98,6 +123,7 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
     public void deleteItem(Long itemId) {
         log.info("DELETE /users - удаление существующего пользователя");
         itemRepository.deleteById(itemId);
+        eventPublisher.publishEvent(ItemChangedEvent.deleted(itemId));
     }
 
     @Override
@@ -107,10 +133,11 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
 
         Item item = findItemById(itemId);
         if (item.getOwner().getId().equals(ownerId)) {
+            Optional<ItemBookingDates> bookingDates = findItemBookingDates(itemId);
             return ItemMapper.INSTANCE.mapToExtendedItemDto(
                     item,
-                    findLastBookingEndByItemId(itemId, LocalDateTime.now()),
-                    findNextBookingEndByItemId(itemId, LocalDateTime.now()),
+                    bookingDates.map(ItemBookingDates::lastBooking),
+                    bookingDates.map(ItemBookingDates::nextBooking),
                     commentRepository.findAllByItemId(itemId)
             );
         }
@@ -118,67 +145,89 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
         return ItemMapper.INSTANCE.mapToExtendedItemDto(item, commentRepository.findAllByItemId(itemId));
     }
 
+    /**
+     * ETag вещи по версии строки и числу комментариев без загрузки сущностей, для владельца также
+     * по датам последнего и ближайшего бронирования в миллисекундах; null, если вещь не найдена.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemETag(Long itemId, Long ownerId) {
+        Optional<ItemVersion> version = itemRepository.findVersionById(itemId);
+        if (version.isEmpty()) {
+            return null;
+        }
+        // комментарии только добавляются, поэтому их число и последний id однозначно задают версию списка
+        String eTag = String.format("item-%d-%d-%d-%d", itemId, version.get().version(),
+                version.get().commentCount(), version.get().lastCommentId());
+        if (!version.get().ownerId().equals(ownerId)) {
+            return eTag;
+        }
+        Optional<ItemBookingDates> bookingDates = findItemBookingDates(itemId);
+        return eTag + "-" + epochMillis(bookingDates.map(ItemBookingDates::lastBooking))
+                + "-" + epochMillis(bookingDates.map(ItemBookingDates::nextBooking));
+    }
+
+    private static String epochMillis(Optional<LocalDateTime> dateTime) {
+        return dateTime.map(value -> String.valueOf(value.toInstant(ZoneOffset.UTC).toEpochMilli())).orElse("none");
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Collection<ItemDto> getItemByText(String text) {
         log.info("GET /items/search - получение вещей по тексту");
         if (StringUtils.isBlank(text)) {
             return new ArrayList<>();
         }
-        return itemRepository.findByText(text).stream()
+        List<Item> items = itemSearchIndex.findItemIds(text, SEARCH_MAX_INDEXED_CANDIDATES)
+                .map(itemIds -> itemIds.isEmpty() ? List.<Item>of() : itemRepository.findByTextAndIdIn(text, itemIds))
+                .orElseGet(() -> itemRepository.findByText(text));
+        return items.stream()
                 .map(ItemMapper.INSTANCE::mapToItemDto)
                 .toList();
     }
 
+    /**
+     * Вещи, даты бронирований и отзывы приходят упорядоченными по id вещи, поэтому DTO собираются
+     * за один проход слиянием трёх списков, без промежуточных map и Optional на каждую вещь.
+     * Отзывы читаются сразу в DTO, без загрузки сущностей отзывов и авторов в контекст.
+     */
     private List<ExtendedItemDto> getItemsData(List<Item> items) {
         List<Long> itemIds = items.stream().map(Item::getId).toList();
-
-        Map<Item, LocalDateTime> pastBookings = bookingRepository
-                .findPastBookingEndDatesForItems(itemIds, Statuses.APPROVED, LocalDateTime.now())
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Booking::getEnd));
-
-        Map<Item, LocalDateTime> futureBookings = bookingRepository
-                .findFutureBookingStartDatesForItems(itemIds, Statuses.APPROVED, LocalDateTime.now())
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Booking::getStart));
-
-        Map<Item, List<Comment>> comments = commentRepository.findCommentsForItems(itemIds)
-                .stream()
-                .collect(Collectors.groupingBy(Comment::getItem, Collectors.toList()));
-
-        List<ExtendedItemDto> itemsData = new ArrayList<>();
-        for (Item item: items) {
-            Optional<LocalDateTime> lastEndDate;
-            Optional<LocalDateTime> nextStartDate;
-            if (!pastBookings.isEmpty()) {
-                lastEndDate = Optional.of(pastBookings.get(item));
-            } else {
-                lastEndDate = Optional.empty();
+        List<ItemBookingDates> bookingDates = findItemBookingDates(itemIds);
+        List<CommentDto> comments = commentRepository.findCommentsForItems(itemIds);
+
+        List<ExtendedItemDto> itemsData = new ArrayList<>(items.size());
+        int datesIndex = 0;
+        int commentIndex = 0;
+        for (Item item : items) {
+            long itemId = item.getId();
+            while (datesIndex < bookingDates.size() && bookingDates.get(datesIndex).itemId() < itemId) {
+                datesIndex++;
             }
-
-            if (!futureBookings.isEmpty()) {
-                nextStartDate = Optional.of(futureBookings.get(item));
-            } else {
-                nextStartDate = Optional.empty();
+            ItemBookingDates dates = datesIndex < bookingDates.size() && bookingDates.get(datesIndex).itemId() == itemId
+                    ? bookingDates.get(datesIndex) : null;
+            while (commentIndex < comments.size() && comments.get(commentIndex).getItemId() < itemId) {
+                commentIndex++;
+            }
+            int firstComment = commentIndex;
+            while (commentIndex < comments.size() && comments.get(commentIndex).getItemId() == itemId) {
+                commentIndex++;
             }
-
             itemsData.add(ItemMapper.INSTANCE.mapToExtendedItemDto(
                     item,
-                    lastEndDate,
-                    nextStartDate,
-                    comments.getOrDefault(item, List.of())
+                    dates == null ? null : dates.lastBooking(),
+                    dates == null ? null : dates.nextBooking(),
+                    comments.subList(firstComment, commentIndex)
             ));
         }
-
         return itemsData;
-
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public Collection<ExtendedItemDto> getAllItemsById(Long ownerId) {
         log.info("GET /items/{id} - получение вещей по пользователю");
-        List<Item> items = itemRepository.findAllByOwnerId(ownerId);
+        List<Item> items = itemRepository.findAllByOwnerIdOrderById(ownerId);
         log.info("Вещи получены");
         if (!items.isEmpty()) {
             return getItemsData(items);
@@ -187,6 +236,33 @@ public class ExtendedItemServiceImpl implements ExtendedItemService {
         return List.of();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("GET /items/{id}/availability - получение свободных периодов вещи");
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания");
+        }
+        findItemById(itemId);
+
+        List<BookedInterval> booked = availabilityCalendar.findIntersecting(itemId, from, to)
+                .orElseGet(() -> bookingRepository.findBookedIntervals(itemId, Statuses.APPROVED, from, to));
+        List<FreeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookedInterval interval : booked) {
+            if (interval.start().isAfter(cursor)) {
+                freeSlots.add(new FreeSlotDto(cursor, interval.start()));
+            }
+            if (interval.end().isAfter(cursor)) {
+                cursor = interval.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            freeSlots.add(new FreeSlotDto(cursor, to));
+        }
+        return freeSlots;
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long authorId, Long itemId, NewCommentRequest newCommentRequest) {
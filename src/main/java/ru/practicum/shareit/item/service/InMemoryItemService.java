@@ -0,0 +1,181 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.exception.NotItemOwnerException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.comment.dto.CommentDto;
+import ru.practicum.shareit.item.comment.dto.NewCommentRequest;
+import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.storage.CommentStorage;
+import ru.practicum.shareit.item.dto.ExtendedItemDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.NewItemRequest;
+import ru.practicum.shareit.item.dto.UpdateItemRequest;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Вещи в хранилище в памяти (профиль in-memory) вместе с их бронированиями и отзывами из хранилищ в памяти.
+ * Версии вещей не ведутся, поэтому ETag не выдаётся.
+ */
+@Slf4j
+@Service
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryItemService implements ExtendedItemService {
+
+    private final ItemStorage itemStorage;
+    private final UserStorage userStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+
+    @Override
+    public ItemDto createItem(Long ownerId, NewItemRequest request) {
+        log.info("POST /items - добавление новой вещи");
+        User owner = userStorage.getUserById(ownerId);
+        Item item = itemStorage.createItem(ItemMapper.INSTANCE.mapToItem(owner, request));
+        return ItemMapper.INSTANCE.mapToItemDto(item);
+    }
+
+    @Override
+    public ItemDto updateItem(Long itemId, UpdateItemRequest request, Long ownerId) {
+        log.info("PATCH /items - обновление существующей вещи");
+        Item item = itemStorage.getItemById(itemId);
+        if (!item.getOwner().getId().equals(ownerId)) {
+            throw new NotItemOwnerException("Редактировать данные вещи может только её владелец");
+        }
+        Item updatedItem = itemStorage.updateItem(ItemMapper.INSTANCE.updateItemFields(item, request));
+        return ItemMapper.INSTANCE.mapToItemDto(updatedItem);
+    }
+
+    @Override
+    public void deleteItem(Long itemId) {
+        log.info("DELETE /items - удаление существующей вещи");
+        itemStorage.deleteItem(itemId);
+        // как каскадное удаление в базе данных
+        bookingStorage.deleteBookingsByItemId(itemId);
+        commentStorage.deleteCommentsByItemId(itemId);
+    }
+
+    @Override
+    public ExtendedItemDto getItemById(Long itemId, Long ownerId) {
+        log.info("GET /items/{id} - получение существующей вещи");
+        Item item = itemStorage.getItemById(itemId);
+        if (item.getOwner().getId().equals(ownerId)) {
+            return toExtendedDto(item);
+        }
+        return ItemMapper.INSTANCE.mapToExtendedItemDto(item, List.copyOf(commentStorage.getCommentsByItemId(itemId)));
+    }
+
+    @Override
+    public String getItemETag(Long itemId, Long ownerId) {
+        return null;
+    }
+
+    @Override
+    public Collection<ItemDto> getItemByText(String text) {
+        log.info("GET /items/search - получение вещей по тексту");
+        if (StringUtils.isBlank(text)) {
+            return List.of();
+        }
+        return itemStorage.getItemByText(text).stream()
+                .map(ItemMapper.INSTANCE::mapToItemDto)
+                .toList();
+    }
+
+    @Override
+    public Collection<ExtendedItemDto> getAllItemsById(Long ownerId) {
+        log.info("GET /items/{id} - получение вещей по пользователю");
+        return itemStorage.getItemsByOwnerId(ownerId).stream()
+                .map(this::toExtendedDto)
+                .toList();
+    }
+
+    @Override
+    public Collection<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("GET /items/{id}/availability - получение свободных периодов вещи");
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше его окончания");
+        }
+        itemStorage.getItemById(itemId);
+
+        List<Booking> booked = findApproved(itemId)
+                .filter(booking -> booking.getStart().isBefore(to) && booking.getEnd().isAfter(from))
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId))
+                .toList();
+        List<FreeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (Booking booking : booked) {
+            if (booking.getStart().isAfter(cursor)) {
+                freeSlots.add(new FreeSlotDto(cursor, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(cursor)) {
+                cursor = booking.getEnd();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            freeSlots.add(new FreeSlotDto(cursor, to));
+        }
+        return freeSlots;
+    }
+
+    @Override
+    public CommentDto addComment(Long authorId, Long itemId, NewCommentRequest newCommentRequest) {
+        log.info("Добавление комментария к вещи");
+        User author = userStorage.getUserById(authorId);
+        Item item = itemStorage.getItemById(itemId);
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean used = bookingStorage.getBookingsByBookerId(authorId).stream()
+                .anyMatch(booking -> booking.getItem().getId().equals(itemId) && booking.getEnd().isBefore(now));
+        if (!used) {
+            throw new ValidationException(String.format("Пользователь %d не может оставить комментарий," +
+                    " если не пользовался вещью", authorId));
+        }
+
+        Comment comment = commentStorage.createComment(CommentMapper.INSTANCE.mapToComment(author, item, newCommentRequest));
+        return CommentMapper.INSTANCE.mapToCommentDto(comment);
+    }
+
+    /**
+     * Последнее завершённое и ближайшее подтверждённое бронирование, как в запросе к базе данных.
+     */
+    private ExtendedItemDto toExtendedDto(Item item) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<LocalDateTime> lastBooking = findApproved(item.getId())
+                .map(Booking::getEnd)
+                .filter(end -> end.isBefore(now))
+                .max(Comparator.naturalOrder());
+        Optional<LocalDateTime> nextBooking = findApproved(item.getId())
+                .map(Booking::getStart)
+                .filter(start -> !start.isBefore(now))
+                .min(Comparator.naturalOrder());
+        return ItemMapper.INSTANCE.mapToExtendedItemDto(item, lastBooking, nextBooking,
+                List.copyOf(commentStorage.getCommentsByItemId(item.getId())));
+    }
+
+    private Stream<Booking> findApproved(Long itemId) {
+        return bookingStorage.getBookingsByItemId(itemId).stream()
+                .filter(booking -> booking.getStatus() == Statuses.APPROVED);
+    }
+}
@@ -1,65 +1,184 @@
 package ru.practicum.shareit.item.storage;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Хранилище вещей в памяти для тестовых и edge-развёртываний (профиль in-memory).
+ * Изменение вещи и её записей в индексах выполняется внутри compute по её id, то есть под блокировкой
+ * сегмента ConcurrentHashMap, поэтому записи разных вещей не мешают друг другу, а чтение идёт без блокировок.
+ * Хранятся и возвращаются копии вещей, чтобы изменения объекта вызывающим кодом не обходили индексы.
+ */
 @Slf4j
 @Repository
+@Profile("in-memory")
 public class InMemoryItemStorage implements ItemStorage {
 
-    private final Map<Long, Item> items = new HashMap<>();
+    private static final int GRAM_LENGTH = 3;
 
-    private long getNextItemId() {
-        long currentMaxId = items.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
-    }
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> itemIdsByGram = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> gramsByItemId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemIdsByOwnerId = new ConcurrentHashMap<>();
+    private final AtomicLong lastItemId = new AtomicLong();
 
     @Override
     public Item createItem(Item item) {
-        item.setId(getNextItemId());
-        items.put(item.getId(), item);
-        return item;
+        Item created = copy(item);
+        created.setId(lastItemId.incrementAndGet());
+        return updateItem(created);
     }
 
     @Override
     public Item updateItem(Item item) {
-        items.put(item.getId(), item);
-        return item;
+        Item stored = copy(item);
+        items.compute(stored.getId(), (itemId, previous) -> {
+            unindex(itemId, previous);
+            index(stored);
+            return stored;
+        });
+        return copy(stored);
     }
 
     @Override
     public void deleteItem(Long itemId) {
-        items.remove(itemId);
+        items.computeIfPresent(itemId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
     }
 
     @Override
     public Item getItemById(Long itemId) {
         return Optional.ofNullable(items.get(itemId))
+                .map(InMemoryItemStorage::copy)
                 .orElseThrow(() -> new NotFoundException(String.format("Вещь с идентификатором - %d не найден", itemId)));
     }
 
+    /**
+     * Самый длинный фрагмент запроса без пробелов целиком лежит внутри одного слова названия или описания,
+     * поэтому каждая его подстрока длины до трёх символов есть в индексе подстрок этой вещи. Кандидаты берутся
+     * из самого короткого списка среди подстрок фрагмента и проверяются полным сравнением, как и раньше.
+     */
     @Override
     public Collection<Item> getItemByText(String text) {
-        return items.values().stream()
-                .filter(item -> checkItem(item, text)).toList();
+        String query = text.toLowerCase();
+        Optional<String> fragment = Arrays.stream(query.split("\\s+"))
+                .max(Comparator.comparingInt(String::length))
+                .filter(longest -> !longest.isEmpty());
+        if (fragment.isEmpty()) {
+            return items.values().stream()
+                    .filter(item -> checkItem(item, query))
+                    .sorted(Comparator.comparing(Item::getId))
+                    .map(InMemoryItemStorage::copy)
+                    .toList();
+        }
+        Set<Long> candidates = null;
+        String longest = fragment.get();
+        for (String gram : grams(longest, Math.min(longest.length(), GRAM_LENGTH))) {
+            Set<Long> itemIds = itemIdsByGram.getOrDefault(gram, Set.of());
+            if (candidates == null || itemIds.size() < candidates.size()) {
+                candidates = itemIds;
+            }
+        }
+        return candidates.stream()
+                .sorted()
+                .map(items::get)
+                .filter(item -> item != null && checkItem(item, query))
+                .map(InMemoryItemStorage::copy)
+                .toList();
+    }
+
+    @Override
+    public Collection<Item> getItemsByOwnerId(Long ownerId) {
+        return itemIdsByOwnerId.getOrDefault(ownerId, Set.of()).stream()
+                .sorted()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .map(InMemoryItemStorage::copy)
+                .toList();
     }
 
     @Override
     public Collection<Item> getAllItems() {
-        return new ArrayList<>(items.values());
+        return items.values().stream()
+                .map(InMemoryItemStorage::copy)
+                .toList();
+    }
+
+    private void index(Item item) {
+        Set<String> grams = new HashSet<>();
+        for (String field : new String[]{item.getName(), item.getDescription()}) {
+            if (field != null) {
+                for (String token : field.toLowerCase().split("\\s+")) {
+                    for (int length = 1; length <= GRAM_LENGTH; length++) {
+                        grams.addAll(grams(token, length));
+                    }
+                }
+            }
+        }
+        gramsByItemId.put(item.getId(), grams);
+        for (String gram : grams) {
+            // добавление внутри compute, чтобы не попасть в множество, которое unindex другой вещи как раз удаляет
+            itemIdsByGram.compute(gram, (key, itemIds) -> addId(itemIds, item.getId()));
+        }
+        Long ownerId = ownerIdOf(item);
+        if (ownerId != null) {
+            itemIdsByOwnerId.compute(ownerId, (key, itemIds) -> addId(itemIds, item.getId()));
+        }
+    }
+
+    private void unindex(Long itemId, Item previous) {
+        Set<String> grams = gramsByItemId.remove(itemId);
+        if (grams != null) {
+            for (String gram : grams) {
+                itemIdsByGram.computeIfPresent(gram, (key, itemIds) -> removeId(itemIds, itemId));
+            }
+        }
+        Long ownerId = previous == null ? null : ownerIdOf(previous);
+        if (ownerId != null) {
+            itemIdsByOwnerId.computeIfPresent(ownerId, (key, itemIds) -> removeId(itemIds, itemId));
+        }
+    }
+
+    private static Set<Long> addId(Set<Long> itemIds, Long itemId) {
+        Set<Long> result = itemIds == null ? ConcurrentHashMap.newKeySet() : itemIds;
+        result.add(itemId);
+        return result;
+    }
+
+    private static Set<Long> removeId(Set<Long> itemIds, Long itemId) {
+        itemIds.remove(itemId);
+        return itemIds.isEmpty() ? null : itemIds;
+    }
+
+    private static Set<String> grams(String token, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= token.length(); i++) {
+            grams.add(token.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    private static Long ownerIdOf(Item item) {
+        return item.getOwner() == null ? null : item.getOwner().getId();
+    }
+
+    private static Item copy(Item item) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getOwner(),
+                item.getRequestId(), item.getVersion());
     }
 
     private boolean checkItem(Item item, String text) {
         return item.getAvailable().equals(Boolean.TRUE)
-                && (item.getName().toLowerCase().contains(text.toLowerCase())
-                || item.getDescription().toLowerCase().contains(text.toLowerCase()));
+                && (item.getName().toLowerCase().contains(text)
+                || item.getDescription().toLowerCase().contains(text));
     }
 }
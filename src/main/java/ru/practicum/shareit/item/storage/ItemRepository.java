@@ -1,19 +1,57 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemVersion;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    List<Item> findAllByOwnerIdOrderById(Long ownerId);
+
+    @Query("select i.id from Item i where i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemAnswerDto(i.id, i.name, i.owner.id, i.requestId) " +
+            "from Item i where i.requestId in (:requestIds) order by i.id")
+    List<ItemAnswerDto> findAnswersForRequests(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * Блокирует строку вещи до конца транзакции и увеличивает её версию,
+     * поэтому подтверждения бронирований одной вещи выполняются по очереди.
+     */
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> findByIdForApproval(@Param("itemId") Long itemId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemVersion(i.id, i.version, i.owner.id, count(c), coalesce(max(c.id), 0)) " +
+            "from Item i left join Comment c on c.item.id = i.id where i.id = :itemId group by i.id, i.version, i.owner.id")
+    Optional<ItemVersion> findVersionById(@Param("itemId") Long itemId);
 
     @Query("select i from Item i where " +
             "i.available = true and " +
             "(lower(i.name) like lower(concat('%', :text, '%')) or " +
             "lower(i.description) like lower(concat('%', :text, '%')))")
     List<Item> findByText(@Param("text") String text);
+
+    @Query("select i from Item i where " +
+            "i.id in (:ids) and i.available = true and " +
+            "(lower(i.name) like lower(concat('%', :text, '%')) or " +
+            "lower(i.description) like lower(concat('%', :text, '%'))) " +
+            "order by i.id")
+    List<Item> findByTextAndIdIn(@Param("text") String text, @Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.search.ItemSearchDocument(i.id, i.name, i.description) " +
+            "from Item i where i.available = true and i.id > :afterId order by i.id")
+    List<ItemSearchDocument> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -16,5 +16,7 @@ public interface ItemStorage {
 
     Collection<Item> getItemByText(String text);
 
+    Collection<Item> getItemsByOwnerId(Long ownerId);
+
     Collection<Item> getAllItems();
 }
@@ -1,12 +1,52 @@
 package ru.practicum.shareit.request.controller;
 
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import java.util.List;
+
+@Slf4j
 @RestController
+@Profile("!in-memory")
 @RequestMapping(path = "/requests")
+@RequiredArgsConstructor
 public class ItemRequestController {
+
+    private final ItemRequestService itemRequestService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ItemRequestDto create(@RequestHeader(ItemRequestControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                 @Valid @RequestBody NewItemRequestDto request) {
+        return itemRequestService.createRequest(userId, request);
+    }
+
+    @GetMapping
+    public List<ItemRequestDto> findOwnRequests(@RequestHeader(ItemRequestControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                @RequestParam(name = "after", required = false) Long after,
+                                                @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                @RequestParam(name = "size", required = false) Integer size) {
+        return itemRequestService.findOwnRequests(userId, after, from, size);
+    }
+
+    @GetMapping(ItemRequestControllerHeaderConstants.ALL_PATH)
+    public List<ItemRequestDto> findOtherUsersRequests(@RequestHeader(ItemRequestControllerHeaderConstants.X_SHARER_USER_ID) Long userId,
+                                                       @RequestParam(name = "after", required = false) Long after,
+                                                       @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                       @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        return itemRequestService.findOtherUsersRequests(userId, after, from, size);
+    }
+
+    @GetMapping(ItemRequestControllerHeaderConstants.PATH)
+    public ItemRequestDto findRequest(@PathVariable(ItemRequestControllerHeaderConstants.ID) Long requestId,
+                                      @RequestHeader(ItemRequestControllerHeaderConstants.X_SHARER_USER_ID) Long userId) {
+        return itemRequestService.findRequest(requestId, userId);
+    }
 }
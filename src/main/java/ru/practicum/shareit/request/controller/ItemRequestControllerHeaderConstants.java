@@ -0,0 +1,8 @@
+package ru.practicum.shareit.request.controller;
+
+public class ItemRequestControllerHeaderConstants {
+    public static final String PATH = "/{id}";
+    public static final String ALL_PATH = "/all";
+    public static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String ID = "id";
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.request.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Вещь, добавленная в ответ на запрос.
+ */
+public record ItemAnswerDto(Long id, String name, Long ownerId, @JsonIgnore Long requestId) {
+}
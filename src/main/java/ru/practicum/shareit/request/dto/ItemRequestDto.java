@@ -1,7 +1,19 @@
 package ru.practicum.shareit.request.dto;
 
-/**
- * TODO Sprint add-item-requests.
- */
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ItemRequestDto {
+    private Long id;
+    private String description;
+    private Long requestor;
+    private LocalDateTime created;
+    private List<ItemAnswerDto> items = List.of();
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.request.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper(componentModel = org.mapstruct.MappingConstants.ComponentModel.SPRING)
+public interface ItemRequestMapper {
+
+    ItemRequestMapper INSTANCE = Mappers.getMapper(ItemRequestMapper.class);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "description", source = "request.description")
+    @Mapping(target = "requestor", source = "requestor")
+    @Mapping(target = "created", source = "created")
+    ItemRequest mapToItemRequest(User requestor, NewItemRequestDto request, LocalDateTime created);
+
+    @Mapping(target = "id", source = "itemRequest.id")
+    @Mapping(target = "requestor", source = "itemRequest.requestor.id")
+    @Mapping(target = "items", source = "items")
+    ItemRequestDto mapToItemRequestDto(ItemRequest itemRequest, List<ItemAnswerDto> items);
+}
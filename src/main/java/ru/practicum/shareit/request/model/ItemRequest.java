@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.*;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "requests")
 @AllArgsConstructor
@@ -14,7 +16,8 @@ import ru.practicum.shareit.user.model.User;
 public class ItemRequest {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description", nullable = false)
@@ -24,4 +27,7 @@ public class ItemRequest {
     @ToString.Exclude
     @JoinColumn(name = "requestor_id", foreignKey = @ForeignKey(name = "fk_requests_user"))
     private User requestor;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
 }
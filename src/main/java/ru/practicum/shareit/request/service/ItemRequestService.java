@@ -0,0 +1,17 @@
+package ru.practicum.shareit.request.service;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+
+    ItemRequestDto createRequest(Long userId, NewItemRequestDto request);
+
+    List<ItemRequestDto> findOwnRequests(Long userId, Long after, Integer from, Integer size);
+
+    List<ItemRequestDto> findOtherUsersRequests(Long userId, Long after, Integer from, Integer size);
+
+    ItemRequestDto findRequest(Long requestId, Long userId);
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.request.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemAnswerDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.NewItemRequestDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Profile("!in-memory")
+@Timed(value = "shareit.service", histogram = true)
+@RequiredArgsConstructor
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private static final LocalDateTime FIRST_PAGE_CREATED = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User findUserById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь c id %d не найден", userId)));
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException(String.format("Пользователь c id %d не найден", userId));
+        }
+    }
+
+    private LocalDateTime findCursorCreated(Long after) {
+        if (after == null) {
+            return FIRST_PAGE_CREATED;
+        }
+        return itemRequestRepository.findCreatedById(after)
+                .orElseThrow(() -> new NotFoundException(String.format("Запрос c id %d не найден", after)));
+    }
+
+    private Pageable toPageable(Integer from, Integer size) {
+        if (size == null) {
+            if (from != null && from > 0) {
+                throw new ValidationException("Параметр from указывается вместе с size");
+            }
+            return Pageable.unpaged();
+        }
+        if (from == null || from < 0 || size <= 0) {
+            throw new ValidationException("Параметр from должен быть неотрицательным, а size - положительным");
+        }
+        return PageRequest.of(from / size, size);
+    }
+
+    /**
+     * Ответы на все запросы страницы загружаются одним запросом по индексу items.request_id.
+     */
+    private List<ItemRequestDto> withAnswers(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findAnswersForRequests(
+                        requests.stream().map(ItemRequest::getId).toList()).stream()
+                .collect(Collectors.groupingBy(ItemAnswerDto::requestId));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.INSTANCE.mapToItemRequestDto(request,
+                        answers.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(Long userId, NewItemRequestDto request) {
+        log.info("POST /requests - добавление нового запроса");
+        User requestor = findUserById(userId);
+        // в базе время хранится с точностью до микросекунд, курсор страниц сравнивает именно его
+        LocalDateTime created = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ItemRequest itemRequest = itemRequestRepository.save(
+                ItemRequestMapper.INSTANCE.mapToItemRequest(requestor, request, created));
+        return ItemRequestMapper.INSTANCE.mapToItemRequestDto(itemRequest, List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOwnRequests(Long userId, Long after, Integer from, Integer size) {
+        log.info("GET /requests - получение запросов пользователя");
+        checkUserExists(userId);
+        LocalDateTime beforeCreated = findCursorCreated(after);
+        Long beforeId = after == null ? Long.MAX_VALUE : after;
+        return withAnswers(itemRequestRepository.findAllByRequestorId(userId, beforeCreated, beforeId,
+                toPageable(from, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> findOtherUsersRequests(Long userId, Long after, Integer from, Integer size) {
+        log.info("GET /requests/all - получение запросов других пользователей");
+        checkUserExists(userId);
+        LocalDateTime beforeCreated = findCursorCreated(after);
+        Long beforeId = after == null ? Long.MAX_VALUE : after;
+        return withAnswers(itemRequestRepository.findAllOfOtherUsers(userId, beforeCreated, beforeId,
+                toPageable(from, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto findRequest(Long requestId, Long userId) {
+        log.info("GET /requests/{id} - получение запроса");
+        checkUserExists(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException(String.format("Запрос c id %d не найден", requestId)));
+        return withAnswers(List.of(request)).getFirst();
+    }
+}
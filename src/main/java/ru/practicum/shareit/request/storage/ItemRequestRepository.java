@@ -0,0 +1,36 @@
+package ru.practicum.shareit.request.storage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+
+    @Query("select r from ItemRequest r where r.requestor.id = :requestorId " +
+            "and r.created <= :beforeCreated and (r.created < :beforeCreated or r.id < :beforeId) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllByRequestorId(@Param("requestorId") Long requestorId,
+                                           @Param("beforeCreated") LocalDateTime beforeCreated,
+                                           @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("select r from ItemRequest r where r.requestor.id <> :userId " +
+            "and r.created <= :beforeCreated and (r.created < :beforeCreated or r.id < :beforeId) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findAllOfOtherUsers(@Param("userId") Long userId,
+                                          @Param("beforeCreated") LocalDateTime beforeCreated,
+                                          @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("select r.created from ItemRequest r where r.id = :requestId")
+    Optional<LocalDateTime> findCreatedById(@Param("requestId") Long requestId);
+
+    @Query("select r.id from ItemRequest r where r.id in :requestIds")
+    Set<Long> findExistingIds(@Param("requestIds") Collection<Long> requestIds);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.user.event;
+
+import java.util.List;
+
+/**
+ * itemIds - вещи пользователя, удалённые вместе с ним каскадом в базе данных.
+ */
+public record UserDeletedEvent(Long userId, List<Long> itemIds) {
+}
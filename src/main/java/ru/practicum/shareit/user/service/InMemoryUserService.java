@@ -0,0 +1,79 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.storage.BookingStorage;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.comment.storage.CommentStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemStorage;
+import ru.practicum.shareit.user.dto.NewUserRequest;
+import ru.practicum.shareit.user.dto.UpdateUserRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserStorage;
+
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Пользователи в хранилище в памяти (профиль in-memory). Проверку почты и её освобождение
+ * выполняет само хранилище. Как и внешние ключи в базе, удаление пользователя удаляет его вещи
+ * с их бронированиями и отзывами, но запрещено, пока у него есть свои бронирования или отзывы.
+ */
+@Slf4j
+@Service
+@Profile("in-memory")
+@RequiredArgsConstructor
+public class InMemoryUserService implements UserService {
+
+    private final UserStorage userStorage;
+    private final ItemStorage itemStorage;
+    private final BookingStorage bookingStorage;
+    private final CommentStorage commentStorage;
+
+    @Override
+    public UserDto createUser(NewUserRequest request) {
+        log.info("POST /users - добавление нового пользователя");
+        return UserMapper.mapToUserDto(userStorage.createUser(UserMapper.mapToUser(request)));
+    }
+
+    @Override
+    public UserDto updateUser(Long userId, UpdateUserRequest request) {
+        log.info("PUT /users - обновление существующего пользователя");
+        User user = new User(userId, request.hasName() ? request.getName() : null,
+                request.hasEmail() ? request.getEmail() : null);
+        return UserMapper.mapToUserDto(userStorage.updateUser(user));
+    }
+
+    @Override
+    public void deleteUser(Long userId) {
+        log.info("DELETE /users - удаление существующего пользователя");
+        if (!bookingStorage.getBookingsByBookerId(userId).isEmpty() || commentStorage.isAuthorExists(userId)) {
+            throw new ConflictException(String.format("Пользователь c id %d оставил бронирования или отзывы", userId));
+        }
+        for (Item item : itemStorage.getItemsByOwnerId(userId)) {
+            itemStorage.deleteItem(item.getId());
+            bookingStorage.deleteBookingsByItemId(item.getId());
+            commentStorage.deleteCommentsByItemId(item.getId());
+        }
+        userStorage.deleteUser(userId);
+    }
+
+    @Override
+    public UserDto getUserById(Long userId) {
+        log.info("GET /users - получение существующего пользователя");
+        return UserMapper.mapToUserDto(userStorage.getUserById(userId));
+    }
+
+    @Override
+    public Collection<UserDto> getAllUsers() {
+        return userStorage.getAllUsers().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(UserMapper::mapToUserDto)
+                .toList();
+    }
+}
@@ -1,26 +1,36 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.dto.NewUserRequest;
 import ru.practicum.shareit.user.dto.UpdateUserRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Service
+@Profile("!in-memory")
 @RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private User findUser(Long userId) {
         return userRepository.findById(userId)
@@ -67,7 +77,9 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(Long userId) {
         log.info("DELETE /users - удаление существующего пользователя");
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, itemIds));
     }
 
     @Override
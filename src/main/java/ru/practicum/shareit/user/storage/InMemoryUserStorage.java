@@ -1,69 +1,90 @@
 package ru.practicum.shareit.user.storage;
 
-import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Хранилище пользователей в памяти для тестовых и edge-развёртываний (профиль in-memory).
+ * Почта занимается через putIfAbsent до сохранения пользователя, поэтому два одновременных запроса
+ * с одной почтой не создадут дубликат. Сохранённый пользователь заменяется целиком и читается без блокировок,
+ * наружу отдаются только копии.
+ */
 @Slf4j
 @Repository
+@Profile("in-memory")
 public class InMemoryUserStorage implements UserStorage {
 
-    private final Map<Long, User> users = new HashMap<>();
-    private final Set<String> usersEmailsSet = new HashSet<>();
-
-    @PostConstruct
-    public void initEmailSet() {
-        users.values().forEach(user -> usersEmailsSet.add(user.getEmail()));
-    }
-
-    private Long getNextUserId() {
-        long currentMaxId = users.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
-    }
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> userIdsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong lastUserId = new AtomicLong();
 
     @Override
     public User createUser(User user) {
-        user.setId(getNextUserId());
-        users.put(user.getId(), user);
-        usersEmailsSet.add(user.getEmail());
-        return user;
+        Long userId = lastUserId.incrementAndGet();
+        reserveEmail(user.getEmail(), userId);
+        User created = new User(userId, user.getName(), user.getEmail());
+        users.put(userId, created);
+        return copy(created);
     }
 
     @Override
     public User updateUser(User user) {
-        User existingUser = users.get(user.getId());
-        existingUser.setName(user.getName());
-        existingUser.setEmail(user.getEmail());
-        usersEmailsSet.add(existingUser.getEmail());
-        return existingUser;
+        return copy(users.compute(user.getId(), (userId, existingUser) -> {
+            if (existingUser == null) {
+                throw new NotFoundException(String.format("Пользователь с идентификатором - %d не найден", userId));
+            }
+            String email = Objects.requireNonNullElse(user.getEmail(), existingUser.getEmail());
+            if (!email.equals(existingUser.getEmail())) {
+                reserveEmail(email, userId);
+                userIdsByEmail.remove(existingUser.getEmail(), userId);
+            }
+            return new User(userId, Objects.requireNonNullElse(user.getName(), existingUser.getName()), email);
+        }));
     }
 
     @Override
     public void deleteUser(Long userId) {
-        users.remove(userId);
+        User removed = users.remove(userId);
+        if (removed != null) {
+            userIdsByEmail.remove(removed.getEmail(), userId);
+        }
     }
 
     @Override
     public User getUserById(Long userId) {
         return Optional.ofNullable(users.get(userId))
+                .map(InMemoryUserStorage::copy)
                 .orElseThrow(() -> new NotFoundException(String.format("Пользователь с идентификатором - %d не найден", userId)));
     }
 
     @Override
     public Collection<User> getAllUsers() {
-        return new ArrayList<>(users.values());
+        return users.values().stream()
+                .map(InMemoryUserStorage::copy)
+                .toList();
     }
 
     @Override
     public boolean isUserEmailExists(String email) {
-        return usersEmailsSet.contains(email);
+        return userIdsByEmail.containsKey(email);
+    }
+
+    private void reserveEmail(String email, Long userId) {
+        if (userIdsByEmail.putIfAbsent(email, userId) != null) {
+            log.error("Пользователь с почтой \"{}\" уже существует", email);
+            throw new ConflictException("Пользователь с такой почтой уже существует");
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
     }
 }
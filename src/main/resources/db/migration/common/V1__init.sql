@@ -47,4 +47,4 @@ created timestamp without time zone not null,
 constraint pk_comments primary key (id),
 constraint fk_comments_item foreign key (item_id) references items(id) on delete cascade,
 constraint fk_comments_author foreign key (author_id) references users(id) on delete restrict
-);
\ No newline at end of file
+);
@@ -0,0 +1 @@
+alter table items add column if not exists version bigint not null default 0;
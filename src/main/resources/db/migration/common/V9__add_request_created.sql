@@ -0,0 +1 @@
+alter table requests add column if not exists created timestamp without time zone not null default current_timestamp;
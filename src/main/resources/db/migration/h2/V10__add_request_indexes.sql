@@ -0,0 +1,7 @@
+create index if not exists idx_requests_requestor_created on requests (requestor_id, created, id);
+create index if not exists idx_requests_created on requests (created, id);
+create index if not exists idx_items_request on items (request_id);
+-- в H2 индекс занят внешним ключом: ключ пересоздаётся и переходит на составной индекс
+alter table requests drop constraint fk_requests_user;
+drop index if exists idx_requests_requestor;
+alter table requests add constraint fk_requests_user foreign key (requestor_id) references users(id) on delete restrict;
@@ -0,0 +1,6 @@
+create index if not exists idx_bookings_booker_start on bookings (booker_id, start_date, id);
+create index if not exists idx_bookings_item_start on bookings (item_id, start_date, id);
+create index if not exists idx_bookings_item_status_end on bookings (item_id, status, end_date, start_date);
+create index if not exists idx_items_owner on items (owner_id);
+create index if not exists idx_comments_item_created on comments (item_id, created);
+create index if not exists idx_requests_requestor on requests (requestor_id);
@@ -0,0 +1,4 @@
+create sequence if not exists bookings_seq start with 1 increment by 50;
+alter sequence bookings_seq restart with (select coalesce(max(id), 0) + 50 from bookings);
+alter table bookings alter column id drop identity;
+alter table bookings alter column id set default next value for bookings_seq;
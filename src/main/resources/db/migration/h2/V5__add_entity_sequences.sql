@@ -0,0 +1,19 @@
+create sequence if not exists users_seq start with 1 increment by 50;
+alter sequence users_seq restart with (select coalesce(max(id), 0) + 50 from users);
+alter table users alter column id drop identity;
+alter table users alter column id set default next value for users_seq;
+
+create sequence if not exists items_seq start with 1 increment by 50;
+alter sequence items_seq restart with (select coalesce(max(id), 0) + 50 from items);
+alter table items alter column id drop identity;
+alter table items alter column id set default next value for items_seq;
+
+create sequence if not exists comments_seq start with 1 increment by 50;
+alter sequence comments_seq restart with (select coalesce(max(id), 0) + 50 from comments);
+alter table comments alter column id drop identity;
+alter table comments alter column id set default next value for comments_seq;
+
+create sequence if not exists requests_seq start with 1 increment by 50;
+alter sequence requests_seq restart with (select coalesce(max(id), 0) + 50 from requests);
+alter table requests alter column id drop identity;
+alter table requests alter column id set default next value for requests_seq;
@@ -0,0 +1,10 @@
+alter table bookings add column if not exists phase varchar(20);
+
+update bookings set phase = case
+    when end_date < current_timestamp then 'PAST'
+    when start_date > current_timestamp then 'FUTURE'
+    else 'CURRENT'
+end
+where phase is null;
+
+alter table bookings alter column phase set not null;
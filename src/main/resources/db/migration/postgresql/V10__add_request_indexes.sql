@@ -0,0 +1,4 @@
+drop index concurrently if exists idx_requests_requestor;
+create index concurrently if not exists idx_requests_requestor_created on requests (requestor_id, created, id);
+create index concurrently if not exists idx_requests_created on requests (created, id);
+create index concurrently if not exists idx_items_request on items (request_id);
@@ -0,0 +1,4 @@
+create sequence if not exists bookings_seq start with 1 increment by 50;
+select setval('bookings_seq', coalesce(max(id), 0) + 50, false) from bookings;
+alter table bookings alter column id drop identity if exists;
+alter table bookings alter column id set default nextval('bookings_seq');
@@ -0,0 +1,19 @@
+create sequence if not exists users_seq start with 1 increment by 50;
+select setval('users_seq', coalesce(max(id), 0) + 50, false) from users;
+alter table users alter column id drop identity if exists;
+alter table users alter column id set default nextval('users_seq');
+
+create sequence if not exists items_seq start with 1 increment by 50;
+select setval('items_seq', coalesce(max(id), 0) + 50, false) from items;
+alter table items alter column id drop identity if exists;
+alter table items alter column id set default nextval('items_seq');
+
+create sequence if not exists comments_seq start with 1 increment by 50;
+select setval('comments_seq', coalesce(max(id), 0) + 50, false) from comments;
+alter table comments alter column id drop identity if exists;
+alter table comments alter column id set default nextval('comments_seq');
+
+create sequence if not exists requests_seq start with 1 increment by 50;
+select setval('requests_seq', coalesce(max(id), 0) + 50, false) from requests;
+alter table requests alter column id drop identity if exists;
+alter table requests alter column id set default nextval('requests_seq');
@@ -0,0 +1,33 @@
+alter table bookings add column if not exists phase varchar(20);
+
+-- заполнение пачками по id с фиксацией каждой пачки, чтобы не держать блокировки строк всей таблицы в одной транзакции
+do $$
+declare
+    batch_from bigint := 0;
+    max_id bigint;
+begin
+    select coalesce(max(id), 0) into max_id from bookings;
+    while batch_from < max_id loop
+        update bookings set phase = case
+            when end_date < current_timestamp then 'PAST'
+            when start_date > current_timestamp then 'FUTURE'
+            else 'CURRENT'
+        end
+        where id > batch_from and id <= batch_from + 10000 and phase is null;
+        commit;
+        batch_from := batch_from + 10000;
+    end loop;
+end $$;
+
+update bookings set phase = case
+    when end_date < current_timestamp then 'PAST'
+    when start_date > current_timestamp then 'FUTURE'
+    else 'CURRENT'
+end
+where phase is null;
+
+-- с проверенным ограничением set not null не сканирует таблицу под эксклюзивной блокировкой
+alter table bookings add constraint chk_bookings_phase_not_null check (phase is not null) not valid;
+alter table bookings validate constraint chk_bookings_phase_not_null;
+alter table bookings alter column phase set not null;
+alter table bookings drop constraint chk_bookings_phase_not_null;
@@ -0,0 +1,4 @@
+create index concurrently if not exists idx_bookings_booker_phase_start on bookings (booker_id, phase, start_date, id);
+create index concurrently if not exists idx_bookings_item_phase_start on bookings (item_id, phase, start_date, id);
+create index concurrently if not exists idx_bookings_phase_start on bookings (phase, start_date);
+create index concurrently if not exists idx_bookings_phase_end on bookings (phase, end_date);
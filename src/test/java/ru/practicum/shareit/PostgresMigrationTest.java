@@ -0,0 +1,110 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.exception.FlywayValidateException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Миграции PostgreSQL на настоящем сервере: индексы создаются concurrently вне транзакции,
+ * и запуск не должен зависнуть на транзакционной блокировке Flyway.
+ */
+@SpringBootTest
+class PostgresMigrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private Flyway flyway;
+    @Autowired
+    private FlywayMigrationStrategy migrationStrategy;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void migrationsApplyWithValidConcurrentIndexes() {
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where not success", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select max(version::int) from flyway_schema_history where version is not null", Integer.class))
+                .isEqualTo(10);
+        assertThat(jdbcTemplate.queryForList("select indexrelid::regclass::text from pg_index where not indisvalid",
+                String.class)).isEmpty();
+        assertThat(jdbcTemplate.queryForList("select indexname from pg_indexes where tablename = 'bookings'",
+                String.class)).contains("idx_bookings_booker_start", "idx_bookings_phase_end");
+    }
+
+    @Test
+    void upToDateSchemaStillValidatesChecksums() {
+        jdbcTemplate.update("update flyway_schema_history set checksum = checksum + 1 where version = '1'");
+        try {
+            assertThatThrownBy(() -> migrationStrategy.migrate(flyway)).isInstanceOf(FlywayValidateException.class);
+        } finally {
+            jdbcTemplate.update("update flyway_schema_history set checksum = checksum - 1 where version = '1'");
+        }
+        migrationStrategy.migrate(flyway);
+    }
+
+    @Test
+    void bookingPhaseBackfilledInBatches() {
+        Flyway backfill = Flyway.configure()
+                .dataSource(POSTGRES.getPostgresDatabase())
+                .schemas("backfill")
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .target("5")
+                .load();
+        backfill.migrate();
+        jdbcTemplate.update("insert into backfill.users (id, name, email) values (1, 'Владелец', 'owner@shareit.ru')");
+        jdbcTemplate.update("insert into backfill.items (id, name, description, is_available, owner_id) " +
+                "values (1, 'Дрель', 'Простая дрель', true, 1)");
+        jdbcTemplate.update("insert into backfill.bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "select id, now() + (id - 15000) * interval '1 hour', now() + (id - 14999) * interval '1 hour', " +
+                "1, 1, 'APPROVED' from generate_series(1, 25000) id");
+
+        Flyway.configure().configuration(backfill.getConfiguration()).target("latest").load().migrate();
+
+        assertThat(jdbcTemplate.queryForList("select phase from backfill.bookings where id in (1, 25000) order by id",
+                String.class)).containsExactly("PAST", "FUTURE");
+        assertThat(jdbcTemplate.queryForObject("select is_nullable from information_schema.columns " +
+                "where table_schema = 'backfill' and table_name = 'bookings' and column_name = 'phase'", String.class))
+                .isEqualTo("NO");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
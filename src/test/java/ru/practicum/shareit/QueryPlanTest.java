@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Phases;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Запросы репозиториев выполняются на заполненной базе, затем для каждого
+ * сгенерированного Hibernate select проверяется план: ни одна из таблиц не должна читаться целиком.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:queryplan",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.QueryPlanTest$Recorder"
+})
+@ActiveProfiles("test")
+class QueryPlanTest {
+
+    private static final int USER_COUNT = 200;
+    private static final int ITEM_COUNT = 2_000;
+    private static final int BOOKINGS_PER_ITEM = 5;
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from users", Long.class) > 0) {
+            return;
+        }
+        batchInsert("insert into users (id, name, email) values (?, ?, ?)", USER_COUNT,
+                (i, args) -> args.addAll(List.of(i + 1, "user" + i, "user" + i + "@shareit.ru")));
+        batchInsert("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)", ITEM_COUNT,
+                (i, args) -> args.addAll(List.of(i + 1, "request" + i, i % USER_COUNT + 1, NOW.minusMinutes(i))));
+        batchInsert("insert into items (id, name, description, is_available, owner_id) values (?, ?, ?, true, ?)",
+                ITEM_COUNT, (i, args) -> args.addAll(List.of(i + 1, "item" + i, "description", i % USER_COUNT + 1)));
+        jdbcTemplate.update("update items set request_id = id where mod(id, 4) = 0");
+        batchInsert("insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                        "values (?, ?, ?, ?, ?, ?)", ITEM_COUNT * BOOKINGS_PER_ITEM,
+                (i, args) -> args.addAll(List.of(NOW.plusDays(i % 20 - 10), NOW.plusDays(i % 20 - 9),
+                        i / BOOKINGS_PER_ITEM + 1, i % USER_COUNT + 1, Statuses.values()[i % 3].name(),
+                        Phases.at(NOW.plusDays(i % 20 - 10), NOW.plusDays(i % 20 - 9), NOW).name())));
+        batchInsert("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)", ITEM_COUNT,
+                (i, args) -> args.addAll(List.of("comment", i + 1, i % USER_COUNT + 1, NOW)));
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void bookingListsUseIndexes() {
+        PageRequest page = PageRequest.of(0, 20);
+        LocalDateTime first = LocalDateTime.of(1, 1, 1, 0, 0);
+        assertIndexed(() -> {
+            bookingRepository.findAllByBookerId(7L, first, 0L, page);
+            bookingRepository.findAllByBookerIdAndStatus(7L, Statuses.WAITING, first, 0L, page);
+            bookingRepository.findAllCurrentBookingByBookerId(7L, first, 0L, page);
+            bookingRepository.findAllPastBookingByBookerId(7L, first, 0L, page);
+            bookingRepository.findAllFutureBookingByBookerId(7L, first, 0L, page);
+            bookingRepository.findAllByOwnerId(7L, first, 0L, page);
+            bookingRepository.findAllByOwnerIdAndStatus(7L, Statuses.WAITING, first, 0L, page);
+            bookingRepository.findAllCurrentBookingByOwnerId(7L, first, 0L, page);
+            bookingRepository.findAllPastBookingByOwnerId(7L, first, 0L, page);
+            bookingRepository.findAllFutureBookingByOwnerId(7L, first, 0L, page);
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.streamAllByOwnerId(7L).close());
+        });
+    }
+
+    @Test
+    void itemBookingLookupsUseIndexes() {
+        List<Long> itemIds = LongStream.rangeClosed(1, 10).boxed().toList();
+        assertIndexed(() -> {
+            bookingRepository.findItemBookingDates(itemIds, Statuses.APPROVED, NOW);
+            bookingRepository.existsOverlapping(3L, Statuses.APPROVED, NOW, NOW.plusDays(1), 0L);
+            bookingRepository.existsByBookerIdAndItemIdAndEndBefore(7L, 3L, NOW);
+        });
+    }
+
+    @Test
+    void itemAndCommentLookupsUseIndexes() {
+        List<Long> itemIds = LongStream.rangeClosed(1, 10).boxed().toList();
+        assertIndexed(() -> {
+            itemRepository.findAllByOwnerIdOrderById(7L);
+            commentRepository.findAllByItemId(3L);
+            commentRepository.findCommentsForItems(itemIds);
+        });
+    }
+
+    @Test
+    void itemRequestListsUseIndexes() {
+        PageRequest page = PageRequest.of(0, 20);
+        List<Long> requestIds = LongStream.rangeClosed(1, 20).boxed().toList();
+        assertIndexed(() -> {
+            itemRequestRepository.findAllByRequestorId(7L, NOW, Long.MAX_VALUE, page);
+            itemRequestRepository.findAllOfOtherUsers(7L, NOW, Long.MAX_VALUE, page);
+            itemRequestRepository.findCreatedById(3L);
+            itemRepository.findAnswersForRequests(requestIds);
+        });
+    }
+
+    private void assertIndexed(Runnable queries) {
+        Recorder.STATEMENTS.clear();
+        queries.run();
+        assertThat(Recorder.STATEMENTS).isNotEmpty();
+        for (String sql : Recorder.STATEMENTS) {
+            String plan = explain(sql);
+            assertThat(plan).as("План запроса%n%s", plan).doesNotContainIgnoringCase(".tableScan");
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatement statement) -> {
+            int parameterCount = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameterCount; i++) {
+                statement.setObject(i, 1);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    private void batchInsert(String sql, int count, RowArguments rowArguments) {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Object> args = new ArrayList<>();
+            rowArguments.fill(i, args);
+            batch.add(args.toArray());
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+    }
+
+    @FunctionalInterface
+    private interface RowArguments {
+        void fill(int row, List<Object> args);
+    }
+
+    public static class Recorder implements StatementInspector {
+
+        static final Set<String> STATEMENTS = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
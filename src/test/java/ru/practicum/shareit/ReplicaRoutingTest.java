@@ -0,0 +1,132 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Базы H2: основная и две отдельно мигрированные "реплики", в которые изменения основной не попадают,
+ * то есть реплики бесконечно отстают. По прочитанному значению видно, куда ушла транзакция.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing-primary",
+    "shareit.datasource.replica.enabled=true",
+    "shareit.datasource.replica.urls=" + ReplicaRoutingTest.REPLICA_URL + "," + ReplicaRoutingTest.SECOND_REPLICA_URL,
+    "shareit.datasource.replica.read-your-writes-window=PT1S"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    static final String SECOND_REPLICA_URL = "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1";
+    private static final long USER_ID = 1L;
+    private static final long OTHER_USER_ID = 2L;
+
+    private static final JdbcTemplate REPLICA = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    private static final JdbcTemplate SECOND_REPLICA =
+            new JdbcTemplate(new DriverManagerDataSource(SECOND_REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrateReplicas() {
+        for (String url : new String[]{REPLICA_URL, SECOND_REPLICA_URL}) {
+            Flyway.configure()
+                    .dataSource(url, "sa", "")
+                    .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                    .load()
+                    .migrate();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        for (JdbcTemplate database : new JdbcTemplate[]{jdbcTemplate, REPLICA, SECOND_REPLICA}) {
+            database.update("delete from users");
+            database.update("insert into users (id, name, email) values (?, 'до записи', 'user1@shareit.ru')", USER_ID);
+        }
+    }
+
+    @AfterEach
+    void finishRequest() {
+        ReplicaRoutingDataSource.finishRequest();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        jdbcTemplate.update("update users set name = 'на основной' where id = ?", USER_ID);
+
+        assertThat(readName(false)).isEqualTo("на основной");
+        assertThat(readName(true)).isEqualTo("до записи");
+    }
+
+    @Test
+    void writerReadsFromPrimaryUntilWindowPasses() throws InterruptedException {
+        ReplicaRoutingDataSource.startRequest(USER_ID);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("update users set name = 'после записи' where id = ?", USER_ID));
+
+        assertThat(readName(true)).isEqualTo("после записи");
+
+        ReplicaRoutingDataSource.startRequest(OTHER_USER_ID);
+        assertThat(readName(true)).isEqualTo("до записи");
+
+        ReplicaRoutingDataSource.startRequest(USER_ID);
+        Thread.sleep(1_200);
+        assertThat(readName(true)).isEqualTo("до записи");
+    }
+
+    @Test
+    void primaryReadDoesNotMakeUserWriter() {
+        jdbcTemplate.update("update users set name = 'на основной' where id = ?", USER_ID);
+        ReplicaRoutingDataSource.startRequest(USER_ID);
+
+        String name = ReplicaRoutingDataSource.primaryReadTransactionTemplate(transactionManager).execute(status ->
+                jdbcTemplate.queryForObject("select name from users where id = ?", String.class, USER_ID));
+
+        assertThat(name).isEqualTo("на основной");
+        assertThat(readName(true)).isEqualTo("до записи");
+    }
+
+    @Test
+    void requestReadsFromSingleReplica() {
+        SECOND_REPLICA.update("update users set name = 'на второй реплике' where id = ?", USER_ID);
+
+        Set<String> outsideRequest = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            outsideRequest.add(readName(true));
+        }
+        assertThat(outsideRequest).containsExactlyInAnyOrder("до записи", "на второй реплике");
+
+        ReplicaRoutingDataSource.startRequest(null);
+        String pinned = readName(true);
+        for (int i = 0; i < 4; i++) {
+            assertThat(readName(true)).isEqualTo(pinned);
+        }
+    }
+
+    private String readName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("select name from users where id = ?", String.class, USER_ID));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingBatchResult;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Пустой элемент пакета - ошибка только своей строки, остальные бронирования создаются.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:batch")
+@ActiveProfiles("test")
+class BookingBatchTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void nullElementIsRejectedAsRowError() {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@shareit.ru"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@shareit.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        List<BookingBatchResult> results = bookingService.createBookings(booker.getId(),
+                Arrays.asList(null, new NewBookingRequest(start, start.plusDays(1), item.getId(), null)));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getError()).isNotNull();
+        assertThat(results.get(0).getBooking()).isNull();
+        assertThat(results.get(1).getError()).isNull();
+        assertThat(results.get(1).getBooking()).isNotNull();
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:concurrency;LOCK_TIMEOUT=30000")
+@ActiveProfiles("test")
+class BookingConcurrencyTest {
+
+    private static final int ITEM_COUNT = 20;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int MAX_ATTEMPTS = 50;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentApprovalsNeverDoubleBookItem() throws InterruptedException {
+        User owner = saveUser();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Item> items = new ArrayList<>();
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            Item item = itemRepository.save(new Item(null, "item " + i, "description", true, owner, null, null));
+            items.add(item);
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                // все заявки на вещь пересекаются между собой
+                NewBookingRequest request = new NewBookingRequest(start.plusHours(j), start.plusDays(1).plusHours(j),
+                        item.getId(), null);
+                bookingIds.add(bookingService.createBooking(saveUser().getId(), request).getId());
+            }
+        }
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long bookingId : bookingIds) {
+                executor.submit(() -> approve(bookingId, owner.getId(), approved, conflicts));
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        }
+
+        assertThat(approved.get()).isEqualTo(ITEM_COUNT);
+        assertThat(conflicts.get()).isEqualTo(ITEM_COUNT * (BOOKINGS_PER_ITEM - 1));
+        for (Item item : items) {
+            List<Booking> bookings = bookingRepository.findAll().stream()
+                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                    .filter(booking -> booking.getStatus() == Statuses.APPROVED)
+                    .toList();
+            assertThat(bookings).hasSize(1);
+        }
+    }
+
+    private void approve(Long bookingId, Long ownerId, AtomicInteger approved, AtomicInteger conflicts) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            try {
+                bookingService.approveBooking(bookingId, ownerId, true);
+                approved.incrementAndGet();
+                return;
+            } catch (ConflictException e) {
+                conflicts.incrementAndGet();
+                return;
+            } catch (ConcurrencyFailureException e) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private User saveUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(new User(null, name, name + "@shareit.ru"));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingNotificationDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.notification.BookingNotificationHub;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Медленный клиент: отправка каждого события занимает случайное время,
+ * а события одного бронирования всё равно приходят в порядке публикации.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:notifications")
+@ActiveProfiles("test")
+class BookingNotificationHubTest {
+
+    private static final int EVENT_COUNT = 300;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private RecordingEmitter emitter;
+    private BookingNotificationHub hub;
+
+    @BeforeEach
+    void createHub() {
+        emitter = new RecordingEmitter();
+        hub = new BookingNotificationHub(Duration.ofMinutes(1), userRepository, transactionTemplate,
+                new SimpleMeterRegistry()) {
+            @Override
+            protected SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void shutdownHub() {
+        hub.shutdown();
+    }
+
+    @Test
+    void eventsOfOneBookingArriveInPublicationOrder() throws InterruptedException {
+        User user = userRepository.save(new User(null, "Подписчик", "subscriber@shareit.ru"));
+        hub.subscribe(user.getId());
+
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            hub.onBookingChanged(new BookingChangedEvent(1L, 1L, user.getId(), user.getId(),
+                    START.plusMinutes(i), START.plusMinutes(i + 1), Statuses.WAITING, true, false));
+        }
+
+        assertThat(emitter.delivered.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.starts).hasSize(EVENT_COUNT).isSorted();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<LocalDateTime> starts = new CopyOnWriteArrayList<>();
+        private final CountDownLatch delivered = new CountDownLatch(EVENT_COUNT);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof BookingNotificationDto notification) {
+                    starts.add(notification.start());
+                    delivered.countDown();
+                }
+            }
+        }
+    }
+}
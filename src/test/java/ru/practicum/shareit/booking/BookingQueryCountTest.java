@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.enums.Phases;
+import ru.practicum.shareit.enums.States;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BookingQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @EnumSource(States.class)
+    void bookerListQueryCountDoesNotDependOnResultSize(States state) {
+        long single = countStatements(seedBookings(1).bookerId(), state, true);
+        long many = countStatements(seedBookings(20).bookerId(), state, true);
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    @ParameterizedTest
+    @EnumSource(States.class)
+    void ownerListQueryCountDoesNotDependOnResultSize(States state) {
+        long single = countStatements(seedBookings(1).ownerId(), state, false);
+        long many = countStatements(seedBookings(20).ownerId(), state, false);
+
+        assertThat(many).isEqualTo(single);
+    }
+
+    private long countStatements(Long userId, States state, boolean asBooker) {
+        statistics.clear();
+        if (asBooker) {
+            bookingService.findAllBookingsByUser(userId, state.name(), null, 0, null);
+        } else {
+            bookingService.findAllBookingsByOwnerItems(userId, state.name(), null, 0, null);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Participants seedBookings(int itemCount) {
+        User owner = saveUser();
+        User booker = saveUser();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = itemRepository.save(new Item(null, "item " + i, "description", true, owner, null, null));
+            saveBooking(item, booker, now.minusDays(2), now.minusDays(1), Statuses.APPROVED);
+            saveBooking(item, booker, now.minusHours(1), now.plusHours(1), Statuses.REJECTED);
+            saveBooking(item, booker, now.plusDays(1), now.plusDays(2), Statuses.WAITING);
+        }
+        return new Participants(owner.getId(), booker.getId());
+    }
+
+    private User saveUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(new User(null, name, name + "@shareit.ru"));
+    }
+
+    private void saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Statuses status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        booking.setPhase(Phases.at(start, end, LocalDateTime.now()));
+        bookingRepository.save(booking);
+    }
+
+    private record Participants(Long ownerId, Long bookerId) {
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.NewBookingRequest;
+import ru.practicum.shareit.booking.dto.UpdateBookingRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.summary.OwnerBookingCounters;
+import ru.practicum.shareit.enums.Statuses;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ExtendedItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Завершённые бронирования хранятся только счётчиками, а сводка после каждого изменения
+ * совпадает со сводкой, посчитанной по базе.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:summary")
+@ActiveProfiles("test")
+class OwnerBookingCountersTest {
+
+    @Autowired
+    private OwnerBookingCounters ownerBookingCounters;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ExtendedItemService itemService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void summaryMatchesDatabaseAfterChanges() {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@shareit.ru"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@shareit.ru"));
+        Item drill = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null, null));
+        Item saw = itemRepository.save(new Item(null, "Пила", "Ручная пила", true, owner, null, null));
+        LocalDateTime now = LocalDateTime.now();
+        long pastApproved = insertBooking(drill, booker, now.minusDays(10), "APPROVED");
+        insertBooking(drill, booker, now.minusDays(8), "APPROVED");
+        long pastRejected = insertBooking(drill, booker, now.minusDays(6), "REJECTED");
+        insertBooking(drill, booker, now.minusDays(4), "WAITING");
+        insertBooking(saw, booker, now.minusDays(10), "APPROVED");
+        insertBooking(saw, booker, now.plusDays(10), "WAITING");
+        ownerBookingCounters.rebuild();
+        assertMatchesDatabase(owner);
+
+        BookingDto created = bookingService.createBooking(booker.getId(),
+                new NewBookingRequest(now.plusDays(20), now.plusDays(21), drill.getId(), null));
+        assertMatchesDatabase(owner);
+
+        bookingService.approveBooking(created.getId(), owner.getId(), false);
+        assertMatchesDatabase(owner);
+
+        UpdateBookingRequest reopen = new UpdateBookingRequest();
+        reopen.setId(pastApproved);
+        reopen.setStartDate(now.plusDays(30));
+        reopen.setEndDate(now.plusDays(31));
+        reopen.setStatus(Statuses.APPROVED);
+        bookingService.updateBooking(owner.getId(), reopen);
+        assertMatchesDatabase(owner);
+
+        bookingService.deleteBooking(pastRejected);
+        assertMatchesDatabase(owner);
+
+        itemService.deleteItem(saw.getId());
+        assertMatchesDatabase(owner);
+    }
+
+    private long insertBooking(Item item, User booker, LocalDateTime start, String status) {
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, ?, ?)", start, start.plusDays(1), item.getId(), booker.getId(), status,
+                start.isAfter(LocalDateTime.now()) ? "FUTURE" : "PAST");
+        return jdbcTemplate.queryForObject("select max(id) from bookings", Long.class);
+    }
+
+    private void assertMatchesDatabase(User owner) {
+        assertThat(ownerBookingCounters.findSummary(owner.getId())).contains(OwnerBookingCounters.summarize(
+                bookingRepository.findSummaryEntries(owner.getId()), LocalDateTime.now()));
+    }
+}
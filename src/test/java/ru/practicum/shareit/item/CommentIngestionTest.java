@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.practicum.shareit.enums.IngestionStatuses;
+import ru.practicum.shareit.item.comment.dto.CommentIngestionDto;
+import ru.practicum.shareit.item.comment.ingest.CommentIngestionService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Асинхронный приём комментариев с остановленным обработчиком очереди, но открытым приёмом: очередь
+ * на два комментария переполняется предсказуемо, а пакет можно собрать до запуска обработчика.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:comments",
+    "shareit.comments.async.enabled=true",
+    "shareit.comments.async.queue-capacity=2",
+    "shareit.comments.async.offer-timeout=10ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommentIngestionTest {
+
+    private static final String PREFER = "respond-async, wait=10";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @SpyBean
+    private CommentIngestionService commentIngestionService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User author;
+
+    @BeforeEach
+    void stopWorker() {
+        commentIngestionService.stop();
+        doReturn(true).when(commentIngestionService).isRunning();
+        author = saveUser();
+    }
+
+    @AfterEach
+    void startWorker() {
+        doCallRealMethod().when(commentIngestionService).isRunning();
+        commentIngestionService.start();
+    }
+
+    @Test
+    void stoppedServiceRejectsComments() throws Exception {
+        doCallRealMethod().when(commentIngestionService).isRunning();
+
+        comment(saveUsedItem(), PREFER).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void fullQueueRespondsTooManyRequests() throws Exception {
+        Item item = saveUsedItem();
+
+        comment(item, PREFER).andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+        comment(item, "RESPOND-ASYNC").andExpect(status().isAccepted());
+        comment(item, PREFER).andExpect(status().isTooManyRequests());
+        comment(item, "return=minimal, foo=\"respond-async, bar\"").andExpect(status().isCreated());
+    }
+
+    @Test
+    void failedBatchFallsBackToSingleComments() throws Exception {
+        Item kept = saveUsedItem();
+        Item deleted = saveUsedItem();
+        UUID saved = trackingId(comment(kept, PREFER));
+        UUID failed = trackingId(comment(deleted, PREFER));
+        jdbcTemplate.update("delete from items where id = ?", deleted.getId());
+
+        commentIngestionService.start();
+
+        assertThat(awaitStatus(saved).getStatus()).isEqualTo(IngestionStatuses.SAVED);
+        assertThat(awaitStatus(failed).getStatus()).isEqualTo(IngestionStatuses.FAILED);
+    }
+
+    private ResultActions comment(Item item, String prefer) throws Exception {
+        return mockMvc.perform(post("/items/{id}/comment", item.getId())
+                .header("X-Sharer-User-Id", author.getId())
+                .header("Prefer", prefer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"text\": \"Отличная вещь\"}"));
+    }
+
+    private UUID trackingId(ResultActions result) throws Exception {
+        String body = result.andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, CommentIngestionDto.class).getTrackingId();
+    }
+
+    private CommentIngestionDto awaitStatus(UUID trackingId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(get("/items/comments/{trackingId}", trackingId))
+                    .andReturn().getResponse().getContentAsString();
+            CommentIngestionDto status = objectMapper.readValue(body, CommentIngestionDto.class);
+            if (status.getStatus() != IngestionStatuses.QUEUED) {
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Комментарий " + trackingId + " не обработан");
+    }
+
+    private Item saveUsedItem() {
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, saveUser(), null, null));
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, 'APPROVED', 'PAST')", start, start.plusDays(1), item.getId(), author.getId());
+        return item;
+    }
+
+    private User saveUser() {
+        String name = UUID.randomUUID().toString();
+        return userRepository.save(new User(null, name, name + "@shareit.ru"));
+    }
+}
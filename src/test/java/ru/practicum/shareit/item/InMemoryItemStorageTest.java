@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.InMemoryItemStorage;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryItemStorageTest {
+
+    private static final String[] NAMES = {"Дрель ударная", "Аккумуляторная дрель", "Пила", "Палатка на двоих",
+        "Лестница", "ДРЕЛЬ-шуруповерт"};
+
+    /**
+     * Поиск по словарю возвращает то же, что и полный перебор по подстроке, в том числе после изменений.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"дрель", "ДРЕЛЬ", "рель уд", "на дво", "шуруп", "ь-ш", "", " ", "нет такого"})
+    void searchMatchesFullScan(String text) {
+        InMemoryItemStorage storage = new InMemoryItemStorage();
+        for (int i = 0; i < NAMES.length; i++) {
+            storage.createItem(new Item(null, NAMES[i], "описание " + i, i != 2, null, null, null));
+        }
+        Item renamed = storage.getItemById(5L);
+        storage.updateItem(new Item(renamed.getId(), "Пила дисковая", "описание", true, null, null, null));
+        storage.deleteItem(1L);
+
+        List<Item> expected = storage.getAllItems().stream()
+                .filter(item -> item.getAvailable() && (item.getName().toLowerCase().contains(text.toLowerCase())
+                        || item.getDescription().toLowerCase().contains(text.toLowerCase())))
+                .sorted(Comparator.comparing(Item::getId))
+                .toList();
+        assertThat(storage.getItemByText(text)).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * В профиле in-memory пользователи, вещи, бронирования и отзывы хранятся в памяти, а не в базе данных.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:inmemory")
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "in-memory"})
+class InMemoryProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void usersAndItemsAreServedFromMemory() throws Exception {
+        long ownerId = createdId(perform(post("/users"), "{\"name\": \"Владелец\", \"email\": \"owner@shareit.ru\"}", null));
+        perform(post("/users"), "{\"name\": \"Другой\", \"email\": \"owner@shareit.ru\"}", null)
+                .andExpect(status().isConflict());
+        long itemId = createdId(perform(post("/items"),
+                "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}", ownerId));
+        perform(patch("/items/{id}", itemId), "{\"name\": \"Дрель ударная\"}", ownerId)
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/search").param("text", "УДАР"))
+                .andExpect(jsonPath("$[0].id").value(itemId));
+        assertThat(userRepository.count()).isZero();
+        assertThat(itemRepository.count()).isZero();
+
+        mockMvc.perform(delete("/users/{id}", ownerId)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/items/{id}", itemId).header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void inMemoryItemIsBookedAndCommented() throws Exception {
+        long ownerId = createdId(perform(post("/users"), "{\"name\": \"Владелец\", \"email\": \"lender@shareit.ru\"}", null));
+        long bookerId = createdId(perform(post("/users"), "{\"name\": \"Арендатор\", \"email\": \"booker@shareit.ru\"}", null));
+        long itemId = createdId(perform(post("/items"),
+                "{\"name\": \"Пила\", \"description\": \"Ручная пила\", \"available\": true}", ownerId));
+        LocalDateTime start = LocalDateTime.now().withNano(0).minusDays(2);
+        long bookingId = createdId(perform(post("/bookings"), String.format(
+                "{\"start\": \"%s\", \"end\": \"%s\", \"itemId\": %d}", start, start.plusDays(1), itemId), bookerId));
+
+        perform(patch("/bookings/{id}", bookingId).param("approved", "true"), "", ownerId)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", ownerId))
+                .andExpect(jsonPath("$[0].id").value(bookingId));
+        // без очереди предпочтение respond-async не применяется и возвращается сам отзыв
+        perform(post("/items/{id}/comment", itemId).header("Prefer", "respond-async"), "{\"text\": \"Хорошая пила\"}", bookerId)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Preference-Applied"))
+                .andExpect(jsonPath("$.text").value("Хорошая пила"));
+        mockMvc.perform(get("/items/{id}", itemId).header("X-Sharer-User-Id", ownerId))
+                .andExpect(jsonPath("$.lastBooking").isNotEmpty())
+                .andExpect(jsonPath("$.comments[0].text").value("Хорошая пила"));
+        assertThat(bookingRepository.count()).isZero();
+
+        // эндпоинты, которым нужна база данных, в профиле in-memory выключены
+        mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", ownerId)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", ownerId))
+                .andExpect(status().isNotFound());
+        perform(post("/items/import"), "[]", ownerId).andExpect(status().isMethodNotAllowed());
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, String body, Long userId) throws Exception {
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId);
+        }
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+
+    private long createdId(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andExpect(status().isCreated()).andReturn().getResponse()
+                .getContentAsString()).get("id").asLong();
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.availability.BookedInterval;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Старые подтверждённые бронирования одной вещи могут пересекаться: длинное бронирование,
+ * начавшееся раньше короткого, всё ещё занимает вещь после окончания короткого.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:calendar")
+@ActiveProfiles("test")
+class ItemAvailabilityCalendarTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private ItemAvailabilityCalendar calendar;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void overlappingLegacyBookingsAreFoundAndDroppedWithOwner() {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@shareit.ru"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@shareit.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null, null));
+        long longBooking = insertApproved(item, booker, DAY.plusDays(1), DAY.plusDays(10));
+        insertApproved(item, booker, DAY.plusDays(2), DAY.plusDays(3));
+        calendar.rebuild();
+
+        assertThat(calendar.findIntersecting(item.getId(), DAY.plusDays(5), DAY.plusDays(6)).orElseThrow())
+                .extracting(BookedInterval::bookingId)
+                .containsExactly(longBooking);
+
+        userService.deleteUser(owner.getId());
+
+        assertThat(calendar.findIntersecting(item.getId(), DAY, DAY.plusDays(20)).orElseThrow()).isEmpty();
+    }
+
+    private long insertApproved(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, 'APPROVED', 'FUTURE')", start, end, item.getId(), booker.getId());
+        return jdbcTemplate.queryForObject("select max(id) from bookings", Long.class);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCalendar;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag владельца содержит даты бронирований, поэтому ответ помечается как зависящий от пользователя.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:etag")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemETagTest {
+
+    private static final LocalDateTime NEXT = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemAvailabilityCalendar calendar;
+
+    @Test
+    void ownerETagCarriesBookingDatesAndVariesByUser() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@shareit.ru"));
+        User booker = userRepository.save(new User(null, "Арендатор", "booker@shareit.ru"));
+        Item item = itemRepository.save(new Item(null, "Дрель", "Простая дрель", true, owner, null, null));
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status, phase) " +
+                "values (?, ?, ?, ?, 'APPROVED', 'FUTURE')", NEXT, NEXT.plusDays(1), item.getId(), booker.getId());
+        calendar.rebuild();
+
+        String eTag = mockMvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "X-Sharer-User-Id"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertThat(eTag).endsWith("-none-" + NEXT.toInstant(ZoneOffset.UTC).toEpochMilli() + "\"");
+        mockMvc.perform(get("/items/{id}", item.getId()).header("X-Sharer-User-Id", owner.getId())
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "X-Sharer-User-Id"));
+    }
+}
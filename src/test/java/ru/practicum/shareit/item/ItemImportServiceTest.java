@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.item.dto.ItemImportError;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+import ru.practicum.shareit.item.importer.ItemImportService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Импорт с пакетом в три строки: ошибочные строки отклоняются по отдельности, остальные сохраняются
+ * через границы пакетов, а оборванный файл оставляет уже сохранённое.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:itemimport",
+    "shareit.items.import.batch-size=3"
+})
+@ActiveProfiles("test")
+class ItemImportServiceTest {
+
+    private static final long OWNER_ID = 1L;
+
+    @Autowired
+    private ItemImportService itemImportService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'owner', 'owner@shareit.ru')", OWNER_ID);
+        jdbcTemplate.update("insert into requests (id, description, requestor_id, created) " +
+                "values (7, 'нужна пила', ?, current_timestamp)", OWNER_ID);
+    }
+
+    @Test
+    void importsValidJsonRowsAndReportsRejected() {
+        ItemImportResult result = itemImportService.importJson(OWNER_ID, body(jsonArray(
+                "{'name': 'Пила', 'description': 'ручная', 'available': true, 'request': 7}",
+                "{'name': '', 'description': 'без названия', 'available': true}",
+                "{'name': 'Ключ', 'description': 'газовый', 'available': 'maybe'}",
+                "{'name': 'Дрель', 'description': 'ударная', 'available': false}",
+                "{'name': 'Лом', 'description': 'стальной', 'available': true, 'request': 999}",
+                "{'name': 'Тиски', 'description': 'слесарные', 'available': true}")));
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getErrors()).extracting(ItemImportError::getRow).containsExactly(2L, 3L, 5L);
+        assertThat(jdbcTemplate.queryForList("select name from items where owner_id = ? order by id", String.class,
+                OWNER_ID)).containsExactly("Пила", "Дрель", "Тиски");
+        assertThat(jdbcTemplate.queryForObject("select request_id from items where name = 'Пила'", Long.class))
+                .isEqualTo(7L);
+    }
+
+    @Test
+    void importsCsvWithQuotedValues() {
+        ItemImportResult result = itemImportService.importCsv(OWNER_ID, body("""
+                name,description,available,request
+                Тиски,"слесарные, 100 мм",true,
+                Лом,,true,
+
+                Уровень,строительный,true,7
+                """));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ItemImportError::getRow).containsExactly(2L);
+        assertThat(jdbcTemplate.queryForObject("select description from items where name = 'Тиски'", String.class))
+                .isEqualTo("слесарные, 100 мм");
+    }
+
+    @Test
+    void keepsSavedRowsWhenJsonIsTruncated() {
+        String json = jsonArray(
+                "{'name': 'Пила', 'description': 'ручная', 'available': true}",
+                "{'name': 'Дрель', 'description': 'ударная', 'available': true}",
+                "{'name': 'Ключ', 'description': 'газовый', 'available': true}",
+                "{'name': 'Лом', 'description': 'стальной', 'available': true}",
+                "{'name': 'Ти");
+        ItemImportResult result = itemImportService.importJson(OWNER_ID, body(json.substring(0, json.length() - 1)));
+
+        assertThat(result.isCompleted()).isFalse();
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getErrors()).extracting(ItemImportError::getRow).containsExactly(5L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from items", Long.class)).isEqualTo(4L);
+    }
+
+    private static String jsonArray(String... rows) {
+        return ("[" + String.join(",\n", rows) + "]").replace('\'', '"');
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.request;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Постраничный обход 100 000 запросов: курсор не теряет и не повторяет запросы с одинаковой датой создания,
+ * а число SQL-запросов на страницу не зависит от её размера.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:requests",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class ItemRequestPagingTest {
+
+    private static final int USER_COUNT = 100;
+    private static final int REQUEST_COUNT = 100_000;
+    private static final int ANSWERED_EVERY = 10;
+    private static final int PAGE_SIZE = 1_000;
+    private static final long USER_ID = 1L;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("select count(*) from requests", Long.class) > 0) {
+            return;
+        }
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USER_COUNT; i++) {
+            users.add(new Object[]{i, "user" + i, "user" + i + "@shareit.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= REQUEST_COUNT; i++) {
+            // по два запроса на каждую дату создания
+            requests.add(new Object[]{i, "request" + i, i % USER_COUNT + 1, CREATED.plusSeconds(i / 2)});
+            if (i % ANSWERED_EVERY == 0) {
+                items.add(new Object[]{i / ANSWERED_EVERY, "item" + i, (i + 1) % USER_COUNT + 1, i});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                requests);
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id, request_id) " +
+                "values (?, ?, 'description', true, ?, ?)", items);
+    }
+
+    @Test
+    void otherUsersRequestsAreWalkedByCursorWithoutGapsOrDuplicates() {
+        List<ItemRequestDto> walked = new ArrayList<>();
+        Long after = null;
+        List<ItemRequestDto> page;
+        do {
+            page = itemRequestService.findOtherUsersRequests(USER_ID, after, 0, PAGE_SIZE);
+            walked.addAll(page);
+            if (!page.isEmpty()) {
+                after = page.getLast().getId();
+            }
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(walked).hasSize(REQUEST_COUNT - REQUEST_COUNT / USER_COUNT);
+        assertThat(walked).extracting(ItemRequestDto::getRequestor).doesNotContain(USER_ID);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(ItemRequestDto::getCreated)
+                .thenComparing(ItemRequestDto::getId).reversed());
+        assertThat(walked).allSatisfy(request -> assertThat(request.getItems())
+                .hasSize(request.getId() % ANSWERED_EVERY == 0 ? 1 : 0));
+    }
+
+    @Test
+    void pageQueryCountDoesNotDependOnPageSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        itemRequestService.findOtherUsersRequests(USER_ID, 500L, 0, 1);
+        long single = statistics.getPrepareStatementCount();
+        statistics.clear();
+        itemRequestService.findOtherUsersRequests(USER_ID, 500L, 0, PAGE_SIZE);
+        long many = statistics.getPrepareStatementCount();
+
+        assertThat(many).isEqualTo(single);
+    }
+}
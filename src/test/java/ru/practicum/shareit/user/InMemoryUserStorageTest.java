@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.InMemoryUserStorage;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryUserStorageTest {
+
+    private final InMemoryUserStorage storage = new InMemoryUserStorage();
+
+    @Test
+    void emailIsReleasedOnUpdateAndDelete() {
+        User user = storage.createUser(new User(null, "user", "old@shareit.ru"));
+        storage.updateUser(new User(user.getId(), null, "new@shareit.ru"));
+
+        assertThat(storage.isUserEmailExists("old@shareit.ru")).isFalse();
+        assertThat(storage.isUserEmailExists("new@shareit.ru")).isTrue();
+        assertThat(storage.getUserById(user.getId()).getName()).isEqualTo("user");
+        assertThatThrownBy(() -> storage.createUser(new User(null, "other", "new@shareit.ru")))
+                .isInstanceOf(ConflictException.class);
+
+        storage.deleteUser(user.getId());
+
+        assertThat(storage.isUserEmailExists("new@shareit.ru")).isFalse();
+        assertThat(storage.createUser(new User(null, "other", "new@shareit.ru")).getId()).isNotEqualTo(user.getId());
+    }
+
+    @Test
+    void concurrentCreatesWithSameEmailKeepOneUser() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            var results = IntStream.range(0, 1_000)
+                    .mapToObj(i -> executor.submit(() -> storage.createUser(
+                            new User(null, "user" + i, "user" + i % 10 + "@shareit.ru"))))
+                    .toList();
+            long created = 0;
+            for (Future<User> result : results) {
+                try {
+                    result.get();
+                    created++;
+                } catch (Exception e) {
+                    assertThat(e).hasCauseInstanceOf(ConflictException.class);
+                }
+            }
+            assertThat(created).isEqualTo(10);
+            assertThat(storage.getAllUsers()).hasSize(10);
+        }
+    }
+}